@@ -232,9 +232,7 @@ public class Atom implements Comparable<Atom> {
      */
     @Deprecated
     public boolean lessThan(Atom atom) {
-        if (this.getLetter() < atom.getLetter()) return true;
-
-        return this.getLetter() == atom.getLetter() && this.getSubscript() < atom.getSubscript();
+        return this.isLessThan(atom);
     }
 
     /**
@@ -247,9 +245,8 @@ public class Atom implements Comparable<Atom> {
      * @since 1.1.0
      */
     public boolean isLessThan(Atom atom) {
-        if (this.getLetter() < atom.getLetter()) return true;
-
-        return this.getLetter() == atom.getLetter() && this.getSubscript() < atom.getSubscript();
+        // The keys pack the letter above the subscript, so one comparison orders by both.
+        return Monomial.key(this.letter, this.subscript) < Monomial.key(atom.letter, atom.subscript);
     }
 
     /**
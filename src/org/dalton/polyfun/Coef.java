@@ -1,6 +1,7 @@
 package org.dalton.polyfun;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * An array of Terms. The Terms are understood to be added.
@@ -18,6 +19,13 @@ import java.util.Arrays;
  * TODO:  (cont) ... or first make a copy of the Object (so that it can't be altered from outside the instance).
  */
 public class Coef {
+    // Fewest products of Terms for which Coef.times(Coef) uses a heap. Below this a hash table of the distinct
+    // products is faster, since like products combine as they are made and there are few of them to keep.
+    private static final int MIN_HEAP_PRODUCTS = 1 << 16;
+
+    // Products where both Coefs have at least this many Terms are made in parallel.
+    private static volatile int parallelThreshold = 1024;
+
     private Term[] terms;
 
     /**
@@ -37,7 +45,7 @@ public class Coef {
         this.terms = new Term[terms.length];
 
         for (int i = 0; i < terms.length; ++i) {
-            Term term = new Term(terms[i].getNumericalCoefficient(), terms[i].getAtoms());
+            Term term = new Term(terms[i].getNumericalCoefficient(), terms[i], null);
             term.reduce();
             this.terms[i] = term;
         }
@@ -103,6 +111,16 @@ public class Coef {
         return this.terms;
     }
 
+    /**
+     * Get the number of Terms both Coefs need for {@link #times(Coef)} to multiply in parallel.
+     *
+     * @return the threshold
+     * @since 1.3.0
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
     /**
      * Set terms array. The array passed in is copied to the terms attribute.
      *
@@ -113,7 +131,7 @@ public class Coef {
         this.terms = new Term[terms.length];
 
         for (int i = 0; i < terms.length; ++i) {
-            this.terms[i] = new Term(terms[i].getNumericalCoefficient(), terms[i].getAtoms());
+            this.terms[i] = new Term(terms[i].getNumericalCoefficient(), terms[i], null);
             this.terms[i].reduce();
         }
 
@@ -130,6 +148,22 @@ public class Coef {
         this.setTerms(new Term[]{term}); // TODO: Better to make a copy of term first?
     }
 
+    /**
+     * Set the number of Terms both Coefs need for {@link #times(Coef)} to split the products across the common
+     * ForkJoinPool. The product is identical to the sequential one, down to the last bit of every numerical
+     * coefficient, so this only changes how long it takes.
+     *
+     * @param terms The new threshold. Must be at least 1.
+     * @since 1.3.0
+     */
+    public static void setParallelThreshold(int terms) {
+        if (terms < 1) {
+            throw new IllegalArgumentException(String.format("Invalid parallel threshold %d, must be at least 1.", terms));
+        }
+
+        parallelThreshold = terms;
+    }
+
     /**
      * Return the constant of a constant Coef object.
      * @return  The constant of the Coef, if it exists
@@ -324,18 +358,39 @@ public class Coef {
      * @since 1.1.0
      */
     public void reduce() {
-        // Save a copy of the current terms.
-        Term[] termsUnordered = new Term[this.getTerms().length];
-        System.arraycopy(this.getTerms(), 0, termsUnordered, 0, this.getTerms().length);
+        // Nothing to do if already reduced.
+        if (this.isReduced()) return;
 
-        // Wipe out the current terms
-        this.setTerms(new Term[0]);
+        // Combine like terms by looking them up by their atoms, the same as inserting them one at a time.
+        TermAccumulator sum = new TermAccumulator(this.getTerms().length);
 
-        // Put them back in smart order
-        for (int i = 0; i < termsUnordered.length; i++) {
-            termsUnordered[i].reduce();
-            this.insert(termsUnordered[i]);
+        for (Term term : this.getTerms()) {
+            term.reduce();
+            sum.add(term);
         }
+
+        // Then put them in smart order, once. Like terms that added up to zero are kept, but reducing again
+        // removes them.
+        this.terms = sum.toTerms(false);
+    }
+
+    /**
+     * Check that the Terms are reduced, so reduce() would not change them: each Term reduced and not zero, and
+     * in order with no two tying, so no two are like. The Terms can be changed in place through getTerms() and
+     * the Term setters, which a Coef can't see, so they are checked each time rather than remembered.
+     *
+     * @return true if reduced
+     */
+    private boolean isReduced() {
+        Term[] terms = this.terms;
+        if (terms == null) return false;
+
+        for (int i = 0; i < terms.length; i++) {
+            if (!terms[i].isReduced() || terms[i].isZero()) return false;
+            if (i > 0 && TermOrder.compareSortKeys(terms[i - 1], terms[i]) >= 0) return false;
+        }
+
+        return true;
     }
 
 
@@ -345,25 +400,136 @@ public class Coef {
      * @param coef The Coef object to multiply to this one.
      * @return the product
      * @since 1.0.0
+     * @see OperationCache
      */
     public Coef times(Coef coef) {
-        Term[] terms = new Term[this.getTerms().length * coef.getTerms().length];
+        if (OperationCache.isEnabled()) {
+            OperationCache.Key key = OperationCache.Key.of(OperationCache.COEF_TIMES, new long[0], this, coef);
+            return OperationCache.coef(key, () -> this.uncachedTimes(coef));
+        }
 
-        // Multiply every term by every term.
-        for (int i = 0; i < this.getTerms().length; i++) {
-            for (int j = 0; j < coef.getTerms().length; j++) {
-                Term product = this.getTerms()[i].times(coef.getTerms()[j]);
+        return this.uncachedTimes(coef);
+    }
 
-                int index = i * coef.getTerms().length + j;
-                terms[index] = product;
+    /**
+     * Multiply a Coefficient by another Coefficient, without looking in the {@link OperationCache}. Polynomial
+     * products use this for their Coefs, so only the Polynomial product is cached, not each of its pieces.
+     *
+     * @param coef The Coef object to multiply to this one.
+     * @return the product
+     */
+    Coef uncachedTimes(Coef coef) {
+        for (Term thisTerm : this.getTerms()) {
+            thisTerm.reduce();
+        }
+
+        for (Term thatTerm : coef.getTerms()) {
+            thatTerm.reduce();
+        }
+
+        Coef productCoef = new Coef();
+
+        // Factors with no letter and subscript in common have no like products, so there is nothing to combine.
+        if ((this.getVariables() & coef.getVariables()) == 0) {
+            productCoef.terms = multiplyUnlike(this, coef);
+            if (productCoef.terms != null) return productCoef;
+        }
+
+        // For very large Coefs, split the products across threads.
+        if (Math.min(this.getTerms().length, coef.getTerms().length) >= parallelThreshold) {
+            productCoef.terms = ParallelProduct.multiply(this.getTerms(), coef.getTerms(), ForkJoinPool.commonPool());
+            if (productCoef.terms != null) return productCoef;
+        }
+
+        // For many products, make them in order with a heap, combining like products as they come off it, so
+        // the working memory is one product per Term of the smaller factor rather than one per distinct product.
+        if ((long) this.getTerms().length * coef.getTerms().length >= MIN_HEAP_PRODUCTS) {
+            productCoef.terms = ProductHeap.multiply(this.getTerms(), coef.getTerms());
+            if (productCoef.terms != null) return productCoef;
+        }
+
+        // Sized for the factors rather than every pair, since like products usually combine. It grows if needed.
+        TermAccumulator product = new TermAccumulator(this.getTerms().length + coef.getTerms().length);
+
+        // Multiply every term by every term, combining like products as they are made.
+        for (Term thisTerm : this.getTerms()) {
+            for (Term thatTerm : coef.getTerms()) {
+                if (thisTerm.hasNullAtoms() || thatTerm.hasNullAtoms()) {
+                    product.add(thisTerm.times(thatTerm));
+                } else {
+                    double numericalCoefficient = thisTerm.getNumericalCoefficient() * thatTerm.getNumericalCoefficient();
+                    Monomial monomial = thisTerm.getMonomial().times(thatTerm.getMonomial()).withoutZeroPowers();
+                    product.add(monomial, numericalCoefficient);
+                }
             }
         }
 
-        Coef productCoef = new Coef(terms);
-        productCoef.reduce();
+        // Like products that cancelled out are left out.
+        productCoef.terms = product.toTerms(true);
         return productCoef;
     }
 
+    /**
+     * Multiply two Coefs that have no letter and subscript in common. Each factor's Terms are different from
+     * each other, so every product is different from every other and none are combined: the products are made
+     * in the same order as in times(Coef), leaving out zeros, and sorted the same way, which gives the same Terms.
+     *
+     * @param these The first factor
+     * @param those The second factor
+     * @return the sorted Terms of the product, or null if a factor may have like Terms, a Term has null atoms or
+     * there are too many products for an array
+     */
+    private static Term[] multiplyUnlike(Coef these, Coef those) {
+        if (!hasUnlikeTerms(these) || !hasUnlikeTerms(those)) return null;
+
+        long products = (long) these.getTerms().length * those.getTerms().length;
+        if (products > Integer.MAX_VALUE - 8) return null;
+
+        Term[] product = new Term[(int) products];
+        int length = 0;
+
+        for (Term thisTerm : these.getTerms()) {
+            for (Term thatTerm : those.getTerms()) {
+                double numericalCoefficient = thisTerm.getNumericalCoefficient() * thatTerm.getNumericalCoefficient();
+                if (numericalCoefficient == 0.0D) continue;
+
+                product[length++] = new Term(numericalCoefficient, thisTerm.getMonomial().times(thatTerm.getMonomial()));
+            }
+        }
+
+        if (length < product.length) product = Arrays.copyOf(product, length);
+
+        Arrays.sort(product, TermOrder::compareSortKeys);
+        return Term.intern(product);
+    }
+
+    /**
+     * Check that no two Terms of a Coef are like and no Term has null atoms, without changing the Coef.
+     */
+    private static boolean hasUnlikeTerms(Coef coef) {
+        Term[] terms = coef.getTerms();
+
+        if (terms.length == 1) return !terms[0].hasNullAtoms();
+
+        return coef.isReduced();
+    }
+
+    /**
+     * Get the letters and subscripts in the Terms as a set of bits, see {@link Term#getVariables()}. Coefs with
+     * no bits in common have no letter and subscript in common.
+     *
+     * @return the bits, 0 for a constant
+     */
+    long getVariables() {
+        long variables = 0;
+
+        for (Term term : this.getTerms()) {
+            variables |= term.getVariables();
+        }
+
+        return variables;
+    }
+
     /**
      * Multiplies each Term in the Coef by a scalar (double)
      *
@@ -394,22 +560,122 @@ public class Coef {
         if (coef.isZero()) return this;
         if (this.isZero()) return coef;
 
-        Term[] terms = new Term[this.getTerms().length + coef.getTerms().length];
+        // Both are in order with no like Terms, so the sum is one merge of the two.
+        if (this.isReduced() && coef.isReduced()) {
+            Term[] merged = merge(this.getTerms(), coef.getTerms());
 
-        for (int i = 0; i < terms.length; i++) {
-            if (i < this.getTerms().length) {
-                terms[i] = this.getTerms()[i];
-            } else {
-                terms[i] = coef.getTerms()[i - this.getTerms().length];
+            if (merged != null) {
+                Coef sum = new Coef();
+                sum.terms = merged;
+                return sum;
             }
         }
 
-        Coef sum = new Coef(terms);
-        sum.reduce();
+        TermAccumulator terms = new TermAccumulator(this.getTerms().length + coef.getTerms().length);
+
+        for (Term term : this.getTerms()) {
+            terms.add(term);
+        }
+
+        for (Term term : coef.getTerms()) {
+            terms.add(term);
+        }
+
+        // Like terms that cancelled out are left out.
+        Coef sum = new Coef();
+        sum.terms = terms.toTerms(true);
         return sum;
     }
 
 
+    /**
+     * Copy this Coef with new Terms and Atoms, so that changing one doesn't change the other.
+     *
+     * @return the copy
+     */
+    Coef copy() {
+        Coef coef = new Coef();
+
+        if (this.terms != null) {
+            coef.terms = new Term[this.terms.length];
+
+            for (int i = 0; i < this.terms.length; i++) {
+                coef.terms[i] = this.terms[i].copy();
+            }
+        }
+
+        return coef;
+    }
+
+    /**
+     * Make a Coef of Terms that are already reduced, without copying or reducing them again.
+     *
+     * @param terms Reduced Terms in sorted order, none of them zero
+     * @return the Coef
+     */
+    static Coef reduced(Term[] terms) {
+        Coef coef = new Coef();
+        coef.terms = terms;
+        return coef;
+    }
+
+    /**
+     * Reduce this Coef and make a {@link FrozenCoef} with the same Terms, which is faster to go over and
+     * multiply but can't be changed. Turn it back into a Coef with {@link FrozenCoef#thaw()}.
+     *
+     * @return the FrozenCoef
+     * @throws AssertionError If a Term has null atoms.
+     * @since 1.3.0
+     */
+    public FrozenCoef freeze() throws AssertionError {
+        this.reduce();
+        return FrozenCoef.of(this);
+    }
+
+    /**
+     * Merge the reduced, sorted Terms of two Coefs into the sorted Terms of their sum, in one pass. Like Terms
+     * are combined by adding the numerical coefficient of the second to the first, and left out if they cancel,
+     * which is what sorting both together after combining like Terms gives.
+     * <p>
+     * Sorting only gives one order if no two Terms tie when their sort keys are compared ignoring case, such as
+     * Terms with a and A. No two Terms of either Coef tie, so if a Term of one ties with an unlike Term of the
+     * other, this gives up.
+     *
+     * @param these Reduced Terms in sorted order, see isReduced()
+     * @param those Reduced Terms in sorted order, see isReduced()
+     * @return the sorted Terms of the sum, or null if the order is not certain
+     */
+    private static Term[] merge(Term[] these, Term[] those) {
+        Term[] sum = new Term[these.length + those.length];
+        int i = 0, j = 0, length = 0;
+
+        while (i < these.length || j < those.length) {
+            int comparison;
+
+            if (i == these.length) comparison = 1;
+            else if (j == those.length) comparison = -1;
+            else comparison = TermOrder.compareSortKeys(these[i], those[j]);
+
+            if (comparison < 0) {
+                sum[length++] = new Term(these[i].getNumericalCoefficient(), these[i], these[i].getMonomial());
+                i++;
+            } else if (comparison > 0) {
+                sum[length++] = new Term(those[j].getNumericalCoefficient(), those[j], those[j].getMonomial());
+                j++;
+            } else {
+                Monomial monomial = these[i].getMonomial();
+                if (!monomial.equals(those[j].getMonomial())) return null;
+
+                double numericalCoefficient = those[j].getNumericalCoefficient() + these[i].getNumericalCoefficient();
+                if (numericalCoefficient != 0.0D) sum[length++] = new Term(numericalCoefficient, these[i], monomial);
+                i++;
+                j++;
+            }
+        }
+
+        return length == sum.length ? sum : Arrays.copyOf(sum, length);
+    }
+
     /**
      * If the Coef is zero, it returns true.
      *
@@ -0,0 +1,595 @@
+package org.dalton.polyfun;
+
+import java.util.Arrays;
+
+/**
+ * A DensePolynomial is a polynomial in X whose coefficients are all numbers, stored in one array of doubles.
+ * The index of the array corresponds to the degree of the term for which that coefficient belongs, the same
+ * as the Coef array of a {@link Polynomial}.
+ * <p>
+ * Example: mathematical object
+ * <p>
+ * p(x) = 3x^3 + 2x + 1
+ * <p>
+ * Java object degree = 3
+ * coefficients = {1, 2, 0, 3}
+ * <p>
+ * A Polynomial stores each number as a Coef, which holds a Term, which holds an array of Atoms. A DensePolynomial
+ * stores the same number as one double, so arithmetic on plottable polynomials is much cheaper. DensePolynomials
+ * can't be changed once made; every operation returns a new one. Polynomial uses this class for its arithmetic
+ * when both operands are plottable, and the results are the same as the Coef-based arithmetic.
+ *
+ * @since 1.3.0
+ */
+public final class DensePolynomial {
+    // Products where both factors have at least this many coefficients are multiplied with the FFT.
+    private static volatile int fftThreshold = 256;
+
+    // If true, FFT products are checked against the schoolbook method on a sample of coefficients.
+    private static volatile boolean fftVerification = false;
+
+    // Outer polynomials of at least this degree are composed with Horner's scheme. Below it, composition sums
+    // the powers of the inner polynomial, which matches the Coef-based arithmetic bit for bit.
+    private static final int MIN_HORNER_DEGREE = 8;
+
+    // Only set while making the DensePolynomial, and never changed after.
+    private double[] coefficients;
+
+    /**
+     * Construct a DensePolynomial from an array of numerical coefficients. The array is copied.
+     * An empty array makes the zero polynomial.
+     *
+     * @param coefficients The coefficients, index 0 being the constant
+     * @since 1.3.0
+     */
+    public DensePolynomial(double[] coefficients) {
+        this.coefficients = coefficients.length == 0 ? new double[1] : coefficients.clone();
+    }
+
+    private DensePolynomial() {
+    }
+
+    /**
+     * Wraps an array without copying it. The array must never be changed afterwards.
+     *
+     * @param coefficients The coefficients, index 0 being the constant
+     * @return the DensePolynomial
+     */
+    static DensePolynomial wrap(double[] coefficients) {
+        DensePolynomial polynomial = new DensePolynomial();
+        polynomial.coefficients = coefficients;
+        return polynomial;
+    }
+
+    /**
+     * Make a DensePolynomial with the same coefficients as a plottable Polynomial.
+     *
+     * @param polynomial The plottable Polynomial
+     * @return the DensePolynomial
+     * @throws AssertionError If the polynomial is not plottable.
+     * @since 1.3.0
+     */
+    public static DensePolynomial from(Polynomial polynomial) throws AssertionError {
+        double[] coefficients = polynomial.getCoefficientSnapshot();
+
+        if (coefficients == null) {
+            String msg = String.format("The polynomial %s is not plottable and cannot be made dense.", polynomial.toString());
+            throw (new AssertionError(msg));
+        }
+
+        return wrap(coefficients);
+    }
+
+    /**
+     * Gets the degree of the polynomial.
+     *
+     * @return the degree
+     * @since 1.3.0
+     */
+    public int getDegree() {
+        return this.coefficients.length - 1;
+    }
+
+    /**
+     * Get the numerical coefficient of the x term at the given degree. Degrees above the degree of the
+     * polynomial have a coefficient of 0.
+     *
+     * @param degree The degree of the x term
+     * @return the numerical coefficient
+     * @since 1.3.0
+     */
+    public double getCoefficientAt(int degree) {
+        return degree < this.coefficients.length ? this.coefficients[degree] : 0;
+    }
+
+    /**
+     * Get a copy of the numerical coefficients.
+     *
+     * @return the coefficients, index 0 being the constant
+     * @since 1.3.0
+     */
+    public double[] getCoefficients() {
+        return this.coefficients.clone();
+    }
+
+    /**
+     * Get the number of coefficients both factors need for multiplication to use the FFT.
+     *
+     * @return the FFT threshold
+     * @since 1.3.0
+     */
+    public static int getFftThreshold() {
+        return fftThreshold;
+    }
+
+    /**
+     * Check if FFT products are verified against the schoolbook method.
+     *
+     * @return true if verification is on
+     * @since 1.3.0
+     */
+    public static boolean isFftVerification() {
+        return fftVerification;
+    }
+
+    /**
+     * Set the number of coefficients both factors need for multiplication to use the FFT, which takes
+     * O(n log n) time. The FFT is only used when both factors are whole numbers small enough for its product to
+     * be rounded to the exact one; other products use Karatsuba's method or the schoolbook method. This also
+     * applies to {@link Polynomial#times(Polynomial)} for plottable polynomials.
+     *
+     * @param length The new threshold. Must be at least 1.
+     * @since 1.3.0
+     */
+    public static void setFftThreshold(int length) {
+        if (length < 1) {
+            throw new IllegalArgumentException(String.format("Invalid FFT threshold %d, must be at least 1.", length));
+        }
+
+        fftThreshold = length;
+    }
+
+    /**
+     * Turn verification of FFT products on or off. When on, every FFT product recomputes a sample of its
+     * coefficients the schoolbook way and throws an AssertionError if one is outside the error bound.
+     * Meant for testing, since it costs some time per product.
+     *
+     * @param verify true to verify FFT products
+     * @since 1.3.0
+     */
+    public static void setFftVerification(boolean verify) {
+        fftVerification = verify;
+    }
+
+    /**
+     * Add two DensePolynomials by adding the coefficients of the corresponding terms.
+     *
+     * @param polynomial DensePolynomial to add
+     * @return the sum
+     * @since 1.3.0
+     */
+    public DensePolynomial plus(DensePolynomial polynomial) {
+        double[] bigger = this.coefficients.length >= polynomial.coefficients.length
+                ? this.coefficients : polynomial.coefficients;
+        double[] smaller = bigger == this.coefficients ? polynomial.coefficients : this.coefficients;
+        double[] sum = bigger.clone();
+
+        for (int i = 0; i < smaller.length; i++) {
+            sum[i] = this.coefficients[i] + polynomial.coefficients[i];
+        }
+
+        return wrap(sum);
+    }
+
+    /**
+     * Subtract a DensePolynomial from this one.
+     *
+     * @param polynomial DensePolynomial to subtract
+     * @return the difference
+     * @since 1.3.0
+     */
+    public DensePolynomial minus(DensePolynomial polynomial) {
+        int length = Math.max(this.coefficients.length, polynomial.coefficients.length);
+        double[] difference = new double[length];
+
+        for (int i = 0; i < length; i++) {
+            difference[i] = this.getCoefficientAt(i) - polynomial.getCoefficientAt(i);
+        }
+
+        return wrap(difference);
+    }
+
+    /**
+     * Multiply by a scalar by multiplying all the coefficients by the scalar.
+     *
+     * @param scalar to multiply
+     * @return the product
+     * @since 1.3.0
+     */
+    public DensePolynomial times(double scalar) {
+        double[] product = new double[this.coefficients.length];
+
+        for (int i = 0; i < product.length; i++) {
+            product[i] = this.coefficients[i] * scalar;
+        }
+
+        return wrap(product);
+    }
+
+    /**
+     * Multiply two DensePolynomials. The degree of the product is the sum of the degrees.
+     *
+     * @param polynomial to multiply
+     * @return the product
+     * @since 1.3.0
+     */
+    public DensePolynomial times(DensePolynomial polynomial) {
+        return wrap(multiply(this.coefficients, polynomial.coefficients));
+    }
+
+    /**
+     * Raise to a power. Powers of 0 or less give the constant 1.
+     *
+     * @param power to raise by
+     * @return the result
+     * @since 1.3.0
+     */
+    public DensePolynomial raiseTo(int power) {
+        return this.raiseTo(power, false);
+    }
+
+    /**
+     * Raise to a power by repeated squaring. See {@link Polynomial#raiseTo(int, boolean)}.
+     *
+     * @param power        to raise by
+     * @param fastSquaring true to use the dedicated squaring method
+     * @return the result
+     * @since 1.3.0
+     */
+    public DensePolynomial raiseTo(int power, boolean fastSquaring) {
+        if (power <= 0) return wrap(new double[]{1.0});
+
+        DensePolynomial result = this;
+
+        if (power < Polynomial.MIN_SQUARING_POWER) {
+            for (int i = 1; i < power; i++) {
+                result = this.times(result);
+            }
+
+            return result;
+        }
+
+        for (int bit = Integer.highestOneBit(power) >> 1; bit != 0; bit >>= 1) {
+            if (fastSquaring) result = wrap(square(result.coefficients));
+            else result = result.times(result);
+
+            if ((power & bit) != 0) result = this.times(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Composes two DensePolynomials.
+     * Example: if this = p(x) and polynomial = q(x), this.of(polynomial) returns p[q(x)]
+     * <p>
+     * From degree 8 up, p is composed with Horner's scheme, p[q] = (...(a_n*q + a_n-1)*q + ...)*q + a_0,
+     * so each degree costs one multiplication by q and one addition.
+     *
+     * @param polynomial The inner polynomial
+     * @return the composition
+     * @since 1.3.0
+     */
+    public DensePolynomial of(DensePolynomial polynomial) {
+        if (this.getDegree() >= MIN_HORNER_DEGREE) {
+            double[] result = new double[]{this.coefficients[this.getDegree()]};
+
+            for (int i = this.getDegree() - 1; i >= 0; i--) {
+                result = multiply(polynomial.coefficients, result);
+                result[0] += this.coefficients[i];
+            }
+
+            return wrap(result);
+        }
+
+        double[] result = new double[this.getDegree() * polynomial.getDegree() + 1];
+        double[] power = new double[]{1.0};
+
+        for (int i = 0; i <= this.getDegree(); i++) {
+            // power is polynomial^i
+            if (i > 0) power = multiply(polynomial.coefficients, power);
+
+            for (int j = 0; j < power.length; j++) {
+                result[j] += power[j] * this.coefficients[i];
+            }
+        }
+
+        return wrap(result);
+    }
+
+    /**
+     * Composes two DensePolynomials with Horner's scheme, writing into a buffer the caller can reuse, so
+     * composing many polynomials doesn't allocate an array for every step. Each step multiplies the buffer by
+     * the inner polynomial in place, the schoolbook way.
+     * <p>
+     * Example: double[] buffer = new double[0]; then for each p, buffer = p.of(q, buffer); and read the
+     * coefficients of p[q(x)] from buffer.
+     *
+     * @param polynomial The inner polynomial
+     * @param buffer     The array to write the coefficients into. If it is shorter than the degree of the
+     *                   composition plus one, a new array is made instead.
+     * @return the array holding the coefficients, index 0 being the constant. Entries past the degree of the
+     * composition are 0.
+     * @since 1.3.0
+     */
+    public double[] of(DensePolynomial polynomial, double[] buffer) {
+        int degree = this.getDegree();
+        int innerDegree = polynomial.getDegree();
+        double[] inner = polynomial.coefficients;
+        double[] result = buffer.length > degree * innerDegree ? buffer : new double[degree * innerDegree + 1];
+
+        Arrays.fill(result, 0.0);
+        result[0] = this.coefficients[degree];
+
+        // resultDegree is the degree of the partial result, (...(a_n*q + a_n-1)*q + ...) + a_i
+        for (int i = degree - 1, resultDegree = 0; i >= 0; i--, resultDegree += innerDegree) {
+            // Multiply by q from the top down, since each coefficient only needs the ones at or below it.
+            for (int k = resultDegree + innerDegree; k >= 0; k--) {
+                double sum = 0;
+
+                for (int j = Math.max(0, k - resultDegree); j <= Math.min(k, innerDegree); j++) {
+                    sum += inner[j] * result[k - j];
+                }
+
+                result[k] = sum;
+            }
+
+            result[0] += this.coefficients[i];
+        }
+
+        return result;
+    }
+
+    /**
+     * Plug a number into the polynomial, using Horner's scheme.
+     *
+     * @param x The value to plug into the polynomial
+     * @return the result
+     * @since 1.3.0
+     */
+    public double eval(double x) {
+        return Polynomial.horner(this.coefficients, x);
+    }
+
+    /**
+     * Make a Polynomial with the same coefficients.
+     *
+     * @return the Polynomial
+     * @since 1.3.0
+     */
+    public Polynomial toPolynomial() {
+        return new Polynomial(this.coefficients);
+    }
+
+    /**
+     * Multiplies two coefficient arrays, with the FFT, Karatsuba's method or the schoolbook method depending
+     * on their lengths. The FFT is skipped for factors it can't multiply exactly, see {@link FastFourierTransform}.
+     * Below the Karatsuba threshold, each product coefficient is summed in the same order as
+     * {@link Polynomial#times(Polynomial)}, so the results match it exactly. Factors with an infinite or NaN
+     * coefficient are always multiplied the schoolbook way, so it only reaches the coefficients it is part of.
+     *
+     * @param a The coefficients of the first factor
+     * @param b The coefficients of the second factor
+     * @return the coefficients of the product
+     * @see Polynomial#setKaratsubaThreshold(int)
+     * @see #setFftThreshold(int)
+     */
+    static double[] multiply(double[] a, double[] b) {
+        if (!isFinite(a) || !isFinite(b)) return schoolbook(a, 0, a.length, b, 0, b.length);
+
+        if (Math.min(a.length, b.length) >= fftThreshold) {
+            double[] product = FastFourierTransform.multiply(a, b, fftVerification);
+            if (product != null) return product;
+        }
+
+        return multiply(a, 0, a.length, b, 0, b.length, Polynomial.getKaratsubaThreshold());
+    }
+
+    /**
+     * Squares a coefficient array, with the FFT above its threshold and otherwise with Karatsuba's method
+     * and a schoolbook step that computes each cross product once. As {@link #multiply(double[], double[])},
+     * infinite and NaN coefficients are squared the schoolbook way.
+     *
+     * @param a The coefficients
+     * @return the coefficients of the square
+     */
+    static double[] square(double[] a) {
+        if (!isFinite(a)) return square(a, 0, a.length, Integer.MAX_VALUE);
+
+        if (a.length >= fftThreshold) {
+            double[] product = FastFourierTransform.multiply(a, a, fftVerification);
+            if (product != null) return product;
+        }
+
+        return square(a, 0, a.length, Polynomial.getKaratsubaThreshold());
+    }
+
+    /**
+     * Squares a range of coefficients. The same as multiplying the range by itself, but all three of Karatsuba's
+     * products are squares too, and the schoolbook step uses a[j]*a[i-j] = a[i-j]*a[j] to do about half the
+     * multiplications.
+     *
+     * @param a         Coefficients to square
+     * @param offset    Index of the first coefficient
+     * @param length    Number of coefficients
+     * @param threshold Length at or below which the schoolbook method is used
+     * @return the coefficients of the square, 2 * length - 1 of them
+     */
+    private static double[] square(double[] a, int offset, int length, int threshold) {
+        double[] square = new double[2 * length - 1];
+
+        if (length <= threshold) {
+            for (int i = 0; i < square.length; i++) {
+                double sum = 0;
+
+                for (int j = Math.max(0, i - length + 1); 2 * j < i; j++) {
+                    sum += a[offset + j] * a[offset + i - j];
+                }
+
+                sum *= 2;
+                if (i % 2 == 0) sum += a[offset + i / 2] * a[offset + i / 2];
+
+                square[i] = sum;
+            }
+
+            return square;
+        }
+
+        int half = (length + 1) / 2;
+        double[] low = square(a, offset, half, threshold);
+        double[] high = square(a, offset + half, length - half, threshold);
+
+        // A0 + A1
+        double[] sum = Arrays.copyOfRange(a, offset, offset + half);
+
+        for (int i = 0; i < length - half; i++) sum[i] += a[offset + half + i];
+
+        double[] middle = square(sum, 0, half, threshold);
+
+        for (int i = 0; i < low.length; i++) middle[i] -= low[i];
+        for (int i = 0; i < high.length; i++) middle[i] -= high[i];
+
+        addInto(square, 0, low);
+        addInto(square, half, middle);
+        addInto(square, 2 * half, high);
+
+        return square;
+    }
+
+    /**
+     * Multiplies two ranges of coefficients, using Karatsuba's method when both are longer than the threshold.
+     * Example: a = A0 + A1*x^m and b = B0 + B1*x^m. Then a*b = z0 + z1*x^m + z2*x^2m where
+     * z0 = A0*B0, z2 = A1*B1 and z1 = (A0+A1)*(B0+B1) - z0 - z2, so three products are needed instead of four.
+     *
+     * @param a         Coefficients of the first factor
+     * @param aOffset   Index of the first coefficient of the first factor
+     * @param aLength   Number of coefficients in the first factor
+     * @param b         Coefficients of the second factor
+     * @param bOffset   Index of the first coefficient of the second factor
+     * @param bLength   Number of coefficients in the second factor
+     * @param threshold Length at or below which the schoolbook method is used
+     * @return the coefficients of the product, aLength + bLength - 1 of them
+     */
+    private static double[] multiply(double[] a, int aOffset, int aLength,
+                                     double[] b, int bOffset, int bLength, int threshold) {
+        if (Math.min(aLength, bLength) <= threshold) {
+            return schoolbook(a, aOffset, aLength, b, bOffset, bLength);
+        }
+
+        int half = (Math.max(aLength, bLength) + 1) / 2;
+
+        if (aLength <= half || bLength <= half) {
+            // Too lopsided to split both: split the longer one and multiply each half by the shorter one.
+            double[] product = new double[aLength + bLength - 1];
+
+            if (aLength < bLength) {
+                addInto(product, 0, multiply(a, aOffset, aLength, b, bOffset, half, threshold));
+                addInto(product, half, multiply(a, aOffset, aLength, b, bOffset + half, bLength - half, threshold));
+            } else {
+                addInto(product, 0, multiply(a, aOffset, half, b, bOffset, bLength, threshold));
+                addInto(product, half, multiply(a, aOffset + half, aLength - half, b, bOffset, bLength, threshold));
+            }
+
+            return product;
+        }
+
+        double[] low = multiply(a, aOffset, half, b, bOffset, half, threshold);
+        double[] high = multiply(a, aOffset + half, aLength - half, b, bOffset + half, bLength - half, threshold);
+
+        // (A0 + A1) and (B0 + B1)
+        double[] aSum = Arrays.copyOfRange(a, aOffset, aOffset + half);
+        double[] bSum = Arrays.copyOfRange(b, bOffset, bOffset + half);
+
+        for (int i = 0; i < aLength - half; i++) aSum[i] += a[aOffset + half + i];
+        for (int i = 0; i < bLength - half; i++) bSum[i] += b[bOffset + half + i];
+
+        double[] middle = multiply(aSum, 0, half, bSum, 0, half, threshold);
+
+        for (int i = 0; i < low.length; i++) middle[i] -= low[i];
+        for (int i = 0; i < high.length; i++) middle[i] -= high[i];
+
+        // The top of the middle product can reach past the end of the product when the halves are
+        // uneven. Those coefficients are zero, so they are added to a longer array that is then cut to length.
+        double[] product = new double[Math.max(aLength + bLength - 1, 3 * half - 1)];
+        addInto(product, 0, low);
+        addInto(product, half, middle);
+        addInto(product, 2 * half, high);
+
+        return product.length == aLength + bLength - 1 ? product : Arrays.copyOf(product, aLength + bLength - 1);
+    }
+
+    /**
+     * Multiplies two ranges of coefficients the schoolbook way: every coefficient by every coefficient.
+     *
+     * @param a       Coefficients of the first factor
+     * @param aOffset Index of the first coefficient of the first factor
+     * @param aLength Number of coefficients in the first factor
+     * @param b       Coefficients of the second factor
+     * @param bOffset Index of the first coefficient of the second factor
+     * @param bLength Number of coefficients in the second factor
+     * @return the coefficients of the product, aLength + bLength - 1 of them
+     */
+    private static double[] schoolbook(double[] a, int aOffset, int aLength, double[] b, int bOffset, int bLength) {
+        double[] product = new double[aLength + bLength - 1];
+
+        for (int i = 0; i < product.length; i++) {
+            double sum = 0;
+
+            for (int j = Math.max(0, i - bLength + 1); j <= Math.min(i, aLength - 1); j++) {
+                sum += a[aOffset + j] * b[bOffset + i - j];
+            }
+
+            product[i] = sum;
+        }
+
+        return product;
+    }
+
+    /**
+     * Add each value of source to the value of target offset places further along.
+     *
+     * @param target The values to add to
+     * @param offset Where in target the first value of source is added
+     * @param source The values to add
+     */
+    private static void addInto(double[] target, int offset, double[] source) {
+        for (int i = 0; i < source.length; i++) {
+            target[offset + i] += source[i];
+        }
+    }
+
+    /**
+     * Checks if every coefficient is finite, i.e. not infinite or NaN.
+     *
+     * @param coefficients The coefficients
+     * @return true if all are finite
+     */
+    private static boolean isFinite(double[] coefficients) {
+        for (double coefficient : coefficients) {
+            if (!Double.isFinite(coefficient)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns a printable string, the same as the equivalent Polynomial.
+     *
+     * @return String representing the polynomial.
+     * @since 1.3.0
+     */
+    @Override
+    public String toString() {
+        return this.toPolynomial().toString();
+    }
+}
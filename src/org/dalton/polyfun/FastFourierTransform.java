@@ -0,0 +1,230 @@
+package org.dalton.polyfun;
+
+/**
+ * Multiplies numerical coefficient arrays with the fast Fourier transform, in O(n log n) time instead of
+ * the O(n^2) of the schoolbook method. Used by {@link DensePolynomial} for high degree products.
+ * <p>
+ * Both factors are real, so they are packed into one complex array (the first factor as the real parts,
+ * the second as the imaginary parts) and transformed together, then the two spectra are separated using
+ * their symmetry. That takes one forward and one inverse transform instead of three.
+ * <p>
+ * The result of a floating point FFT is off by a small amount compared to the exact product. This class
+ * works out a bound on that amount from the sizes of the factors. The bound is the same for every coefficient,
+ * so a small coefficient next to large ones can be lost in it. The FFT is therefore only used when both factors
+ * are whole numbers and the bound is below 0.5: every coefficient is then rounded to the nearest whole number,
+ * which makes it exact. Other factors are left to the caller to multiply.
+ */
+final class FastFourierTransform {
+    // Round-off of one double operation.
+    private static final double EPSILON = Math.ulp(1.0);
+
+    // How many coefficients the verification mode recomputes the schoolbook way.
+    private static final int VERIFIED_SAMPLES = 32;
+
+    private FastFourierTransform() {
+    }
+
+    /**
+     * Multiply two coefficient arrays.
+     *
+     * @param a      The coefficients of the first factor
+     * @param b      The coefficients of the second factor
+     * @param verify If true, recompute a sample of the coefficients the schoolbook way and check they are within
+     *               the error bound
+     * @return the coefficients of the product, or null if a factor isn't all whole numbers or the product is too
+     * big for the FFT to get exactly
+     * @throws AssertionError If verify is true and a sampled coefficient is outside the error bound.
+     */
+    static double[] multiply(double[] a, double[] b, boolean verify) throws AssertionError {
+        // Fractions, infinities and NaN can't be rounded to the exact product, so let the caller multiply.
+        if (!isWhole(a) || !isWhole(b)) return null;
+
+        int length = a.length + b.length - 1;
+        int size = Integer.highestOneBit(length);
+        if (size < length) size <<= 1;
+
+        double normProduct = norm(a) * norm(b);
+        double bound = errorBound(normProduct, size);
+
+        // Too big to round to the right whole numbers.
+        if (!(bound < 0.5)) return null;
+
+        // Pack a into the real parts and b into the imaginary parts.
+        double[] real = new double[size];
+        double[] imaginary = new double[size];
+        System.arraycopy(a, 0, real, 0, a.length);
+        System.arraycopy(b, 0, imaginary, 0, b.length);
+
+        transform(real, imaginary, false);
+
+        // Separate the spectra: A[k] = (Z[k] + conj(Z[-k])) / 2 and B[k] = (Z[k] - conj(Z[-k])) / 2i,
+        // then multiply them. Each pair k, -k is done together since both need the same two values.
+        double[] productReal = new double[size];
+        double[] productImaginary = new double[size];
+
+        for (int k = 0; k <= size / 2; k++) {
+            int j = (size - k) & (size - 1);
+            double aReal = (real[k] + real[j]) / 2;
+            double aImaginary = (imaginary[k] - imaginary[j]) / 2;
+            double bReal = (imaginary[k] + imaginary[j]) / 2;
+            double bImaginary = (real[j] - real[k]) / 2;
+
+            // A[k] * B[k], and its conjugate at -k, since the product of real arrays is real.
+            productReal[k] = aReal * bReal - aImaginary * bImaginary;
+            productImaginary[k] = aReal * bImaginary + aImaginary * bReal;
+            productReal[j] = productReal[k];
+            productImaginary[j] = -productImaginary[k];
+        }
+
+        transform(productReal, productImaginary, true);
+
+        double[] product = new double[length];
+
+        for (int i = 0; i < length; i++) {
+            product[i] = Math.rint(productReal[i] / size);
+        }
+
+        if (verify) verify(a, b, product, bound, normProduct);
+
+        return product;
+    }
+
+    /**
+     * A bound on how far any coefficient of the FFT product can be from the exact product:
+     * |a| * |b| * epsilon * (3 log2(size) + 4), using the Euclidean norms of the factors. This follows the
+     * usual analysis of a radix-2 FFT with accurately computed twiddle factors, with some room to spare.
+     *
+     * @param normProduct The product of the norms of the factors, |a| * |b|
+     * @param size        The transform size
+     * @return the error bound
+     */
+    private static double errorBound(double normProduct, int size) {
+        int log = Integer.numberOfTrailingZeros(size);
+        return normProduct * EPSILON * (3 * log + 4);
+    }
+
+    /**
+     * Recompute evenly spaced coefficients of the product the schoolbook way and compare.
+     *
+     * @param a       The coefficients of the first factor
+     * @param b       The coefficients of the second factor
+     * @param product     The FFT product
+     * @param bound       The error bound
+     * @param normProduct The product of the norms of the factors
+     * @throws AssertionError If a coefficient is further from the schoolbook value than the bound.
+     */
+    private static void verify(double[] a, double[] b, double[] product, double bound, double normProduct)
+            throws AssertionError {
+        int step = Math.max(1, product.length / VERIFIED_SAMPLES);
+
+        // The schoolbook sum rounds too, by at most its own length times epsilon times the norms.
+        double tolerance = bound + a.length * EPSILON * normProduct;
+
+        for (int i = 0; i < product.length; i += step) {
+            double exact = 0;
+
+            for (int j = Math.max(0, i - b.length + 1); j <= Math.min(i, a.length - 1); j++) {
+                exact += a[j] * b[i - j];
+            }
+
+            if (!(Math.abs(product[i] - exact) <= tolerance)) {
+                String msg = String.format("FFT coefficient %d is %s but the schoolbook value is %s (error bound %s).",
+                        i, product[i], exact, tolerance);
+                throw (new AssertionError(msg));
+            }
+        }
+    }
+
+    /**
+     * In-place iterative radix-2 FFT. The length of the arrays must be a power of 2.
+     * The inverse transform is not scaled by 1 / size.
+     *
+     * @param real      The real parts
+     * @param imaginary The imaginary parts
+     * @param inverse   True for the inverse transform
+     */
+    private static void transform(double[] real, double[] imaginary, boolean inverse) {
+        int size = real.length;
+
+        // Put the values in bit-reversed order.
+        for (int i = 1, j = 0; i < size; i++) {
+            int bit = size >> 1;
+
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+
+            j ^= bit;
+
+            if (i < j) {
+                double swap = real[i];
+                real[i] = real[j];
+                real[j] = swap;
+                swap = imaginary[i];
+                imaginary[i] = imaginary[j];
+                imaginary[j] = swap;
+            }
+        }
+
+        // Twiddle factors for the largest butterfly, each computed directly so their error stays at one ulp.
+        double[] cos = new double[size / 2];
+        double[] sin = new double[size / 2];
+        double sign = inverse ? 1 : -1;
+
+        for (int k = 0; k < size / 2; k++) {
+            cos[k] = Math.cos(2 * Math.PI * k / size);
+            sin[k] = sign * Math.sin(2 * Math.PI * k / size);
+        }
+
+        for (int length = 2; length <= size; length <<= 1) {
+            int half = length >> 1;
+            int stride = size / length;
+
+            for (int start = 0; start < size; start += length) {
+                for (int k = 0; k < half; k++) {
+                    double wReal = cos[k * stride];
+                    double wImaginary = sin[k * stride];
+                    int even = start + k;
+                    int odd = even + half;
+                    double oddReal = real[odd] * wReal - imaginary[odd] * wImaginary;
+                    double oddImaginary = real[odd] * wImaginary + imaginary[odd] * wReal;
+
+                    real[odd] = real[even] - oddReal;
+                    imaginary[odd] = imaginary[even] - oddImaginary;
+                    real[even] += oddReal;
+                    imaginary[even] += oddImaginary;
+                }
+            }
+        }
+    }
+
+    /**
+     * The Euclidean norm of an array, i.e. the square root of the sum of squares.
+     *
+     * @param values The array
+     * @return the norm
+     */
+    private static double norm(double[] values) {
+        double sum = 0;
+
+        for (double value : values) {
+            sum += value * value;
+        }
+
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Checks if every value is a finite whole number.
+     *
+     * @param values The array
+     * @return true if there are no fractions, infinities or NaN
+     */
+    private static boolean isWhole(double[] values) {
+        for (double value : values) {
+            if (value != Math.rint(value) || Double.isInfinite(value)) return false;
+        }
+
+        return true;
+    }
+}
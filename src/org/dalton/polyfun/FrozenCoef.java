@@ -0,0 +1,530 @@
+package org.dalton.polyfun;
+
+import java.util.Arrays;
+
+/**
+ * A FrozenCoef is a reduced {@link Coef} that can't be changed, stored as a few flat arrays instead of Terms
+ * that each hold an array of Atoms.
+ * <p>
+ * Example: mathematical object
+ * <p>
+ * 2(a_1)^3b + 7
+ * <p>
+ * Java object coefficients = {2, 7}
+ * starts = {0, 2, 2}
+ * keys = {key('a', 1), key('b', -1)}
+ * powers = {3, 1}
+ * <p>
+ * Each Term is its numerical coefficient and a range of keys and powers, from its start up to the next Term's
+ * start. A key packs an Atom's letter and subscript into a long, as {@link Monomial} does. Going over a Coef
+ * reads the arrays from start to end instead of following a reference to each Term and each Atom, which suits
+ * large Coefs that are read far more than they are changed. Make one with {@link Coef#freeze()} and turn it back
+ * into a Coef with {@link #thaw()}. FrozenCoefs can't be changed once made; every operation returns a new one.
+ *
+ * @since 1.3.0
+ */
+public final class FrozenCoef {
+    // Per Term: its numerical coefficient, and the index of its first key. There is one more start than there
+    // are Terms, for the end of the last Term's keys.
+    private final double[] coefficients;
+    private final int[] starts;
+
+    // Per Atom: its letter and subscript packed with Monomial.key(), and its power.
+    private final long[] keys;
+    private final int[] powers;
+
+    // The Terms of this Coef, from and up to. A FrozenPolynomial keeps all its Coefs in one set of arrays.
+    private final int from, to;
+
+    /**
+     * Wraps arrays without copying them. The arrays must never be changed afterwards.
+     */
+    FrozenCoef(double[] coefficients, int[] starts, long[] keys, int[] powers, int from, int to) {
+        this.coefficients = coefficients;
+        this.starts = starts;
+        this.keys = keys;
+        this.powers = powers;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Freeze a reduced Coef.
+     *
+     * @param coef The reduced Coef
+     * @return the FrozenCoef
+     * @throws AssertionError If a Term has null atoms.
+     */
+    static FrozenCoef of(Coef coef) throws AssertionError {
+        Builder builder = new Builder(coef.getTerms().length);
+        builder.add(coef);
+        return builder.toCoef(0, builder.terms);
+    }
+
+    /**
+     * Get the number of Terms.
+     *
+     * @return the number of Terms
+     * @since 1.3.0
+     */
+    public int getTermCount() {
+        return this.to - this.from;
+    }
+
+    /**
+     * Get the numerical coefficient of a Term.
+     *
+     * @param term The index of the Term, in order
+     * @return the numerical coefficient
+     */
+    double getNumericalCoefficient(int term) {
+        return this.coefficients[this.from + term];
+    }
+
+    /**
+     * If the Coef is zero, it returns true.
+     *
+     * @return true if the Coef has no Terms
+     * @since 1.3.0
+     */
+    public boolean isZero() {
+        return this.from == this.to;
+    }
+
+    /**
+     * True if the Coef consists only of a double, as {@link Coef#isConstantCoef()}.
+     *
+     * @return true if the Coef is one Term with no Atoms
+     * @since 1.3.0
+     */
+    public boolean isConstantCoef() {
+        return this.to - this.from == 1 && this.starts[this.from] == this.starts[this.from + 1];
+    }
+
+    /**
+     * Make a Coef with the same Terms, which can be changed.
+     *
+     * @return the Coef
+     * @since 1.3.0
+     */
+    public Coef thaw() {
+        Term[] terms = new Term[this.to - this.from];
+
+        for (int i = 0; i < terms.length; i++) {
+            int term = this.from + i;
+            Monomial monomial = Monomial.of(this.keys, this.powers, this.starts[term], this.starts[term + 1]);
+            terms[i] = new Term(this.coefficients[term], monomial);
+        }
+
+        return Coef.reduced(terms);
+    }
+
+    /**
+     * Multiply by another FrozenCoef, giving the same Terms as {@link Coef#times(Coef)}. Like products are
+     * combined in a hash table over the flat arrays, in the order Coef.times(Coef) makes them.
+     *
+     * @param coef The FrozenCoef to multiply this by
+     * @return the product
+     * @since 1.3.0
+     */
+    public FrozenCoef times(FrozenCoef coef) {
+        FrozenCoef product = this.hasSurrogates() || coef.hasSurrogates() ? null : new Product(this, coef).multiply();
+
+        // Terms that tie when sorted only have the order Coef.times(Coef) gives them.
+        return product != null ? product : this.thaw().times(coef.thaw()).freeze();
+    }
+
+    /**
+     * Check if a letter is half of a surrogate pair, which {@link TermOrder} only compares as a String.
+     */
+    private boolean hasSurrogates() {
+        for (int i = this.starts[this.from]; i < this.starts[this.to]; i++) {
+            if (Character.isSurrogate((char) (this.keys[i] >>> 32))) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks equality between FrozenCoefs: the same Terms in the same order, with numerical coefficients
+     * compared as {@link Double#equals(Object)} does.
+     *
+     * @param object The object to compare this to
+     * @return true if equal
+     * @since 1.3.0
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof FrozenCoef)) return false;
+
+        FrozenCoef coef = (FrozenCoef) object;
+        if (this.getTermCount() != coef.getTermCount()) return false;
+
+        for (int i = 0; i < this.getTermCount(); i++) {
+            int term = this.from + i, thatTerm = coef.from + i;
+
+            if (Double.doubleToLongBits(this.coefficients[term]) != Double.doubleToLongBits(coef.coefficients[thatTerm])
+                    || !Arrays.equals(this.keys, this.starts[term], this.starts[term + 1],
+                    coef.keys, coef.starts[thatTerm], coef.starts[thatTerm + 1])
+                    || !Arrays.equals(this.powers, this.starts[term], this.starts[term + 1],
+                    coef.powers, coef.starts[thatTerm], coef.starts[thatTerm + 1])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+
+        for (int term = this.from; term < this.to; term++) {
+            long bits = Double.doubleToLongBits(this.coefficients[term]);
+            hash = 31 * hash + (int) (bits ^ (bits >>> 32));
+
+            for (int i = this.starts[term]; i < this.starts[term + 1]; i++) {
+                hash = 31 * hash + Long.hashCode(this.keys[i]);
+                hash = 31 * hash + this.powers[i];
+            }
+
+            hash = 31 * hash + this.starts[term + 1] - this.starts[term];
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns a printable string, the same as {@link Coef#toString()} gives.
+     *
+     * @return String representing the Coef
+     * @since 1.3.0
+     */
+    @Override
+    public String toString() {
+        StringBuilder string = new StringBuilder();
+
+        for (int term = this.from; term < this.to; term++) {
+            double numericalCoefficient = this.coefficients[term];
+            int start = this.starts[term], end = this.starts[term + 1];
+
+            // Every Term prints something, since none are zero. If negative, the "-" comes with the number.
+            if (string.length() > 0 && numericalCoefficient > 0) string.append("+");
+
+            if (start == end) {
+                string.append(numericalCoefficient);
+                continue;
+            }
+
+            // Prepend with the numerical coef (unless it's 1, which is implied)
+            if (numericalCoefficient == -1.0D) string.append("-");
+            else if (numericalCoefficient != 1.0D) string.append(numericalCoefficient);
+
+            for (int i = start; i < end; i++) {
+                int subscript = (int) this.keys[i] ^ Integer.MIN_VALUE;
+                string.append((char) (this.keys[i] >>> 32));
+
+                if (subscript != -1) string.append('_').append(subscript);
+                if (this.powers[i] != 1) string.append('^').append(this.powers[i]);
+            }
+        }
+
+        return string.toString();
+    }
+
+    /**
+     * Builds the arrays of FrozenCoefs from reduced Coefs, one after another.
+     */
+    static final class Builder {
+        private double[] coefficients;
+        private int[] starts;
+        private long[] keys;
+        private int[] powers;
+        private int terms, atoms;
+
+        /**
+         * Make an empty Builder.
+         *
+         * @param expectedTerms About how many Terms will be added
+         */
+        Builder(int expectedTerms) {
+            int capacity = Math.max(4, expectedTerms);
+            this.coefficients = new double[capacity];
+            this.starts = new int[capacity + 1];
+            this.keys = new long[2 * capacity];
+            this.powers = new int[2 * capacity];
+        }
+
+        /**
+         * Get the number of Terms added so far.
+         *
+         * @return the number of Terms
+         */
+        int size() {
+            return this.terms;
+        }
+
+        /**
+         * Add the Terms of a reduced Coef, leaving out zero Terms, which reducing again would remove.
+         *
+         * @param coef The reduced Coef
+         * @throws AssertionError If a Term has null atoms.
+         */
+        void add(Coef coef) throws AssertionError {
+            for (Term term : coef.getTerms()) {
+                if (term.hasNullAtoms()) {
+                    String msg = String.format("The coef %s has a term with null atoms and cannot be frozen.", coef.toString());
+                    throw (new AssertionError(msg));
+                }
+
+                if (term.isZero()) continue;
+
+                Monomial monomial = term.getMonomial();
+
+                if (this.terms == this.coefficients.length) {
+                    this.coefficients = Arrays.copyOf(this.coefficients, 2 * this.terms);
+                    this.starts = Arrays.copyOf(this.starts, 2 * this.terms + 1);
+                }
+
+                if (this.atoms + monomial.size() > this.keys.length) {
+                    int capacity = Math.max(2 * this.keys.length, this.atoms + monomial.size());
+                    this.keys = Arrays.copyOf(this.keys, capacity);
+                    this.powers = Arrays.copyOf(this.powers, capacity);
+                }
+
+                for (int i = 0; i < monomial.size(); i++) {
+                    this.keys[this.atoms] = monomial.keyAt(i);
+                    this.powers[this.atoms++] = monomial.powerAt(i);
+                }
+
+                this.coefficients[this.terms++] = term.getNumericalCoefficient();
+                this.starts[this.terms] = this.atoms;
+            }
+        }
+
+        /**
+         * Trim the arrays to what was added. Call once, after adding everything.
+         */
+        void trim() {
+            this.coefficients = Arrays.copyOf(this.coefficients, this.terms);
+            this.starts = Arrays.copyOf(this.starts, this.terms + 1);
+            this.keys = Arrays.copyOf(this.keys, this.atoms);
+            this.powers = Arrays.copyOf(this.powers, this.atoms);
+        }
+
+        /**
+         * Make a FrozenCoef of Terms added so far, trimming the arrays first. Later FrozenCoefs from this Builder
+         * share the same arrays.
+         *
+         * @param from The index of the first Term
+         * @param to   The index after the last Term
+         * @return the FrozenCoef
+         */
+        FrozenCoef toCoef(int from, int to) {
+            if (this.coefficients.length != this.terms) this.trim();
+            return new FrozenCoef(this.coefficients, this.starts, this.keys, this.powers, from, to);
+        }
+    }
+
+    /**
+     * The product of two FrozenCoefs, made in flat arrays: the keys and powers of each distinct product are
+     * appended to one array, and an open-addressing hash table finds like products.
+     */
+    private static final class Product {
+        // Largest fraction of the table that is used before it is doubled.
+        private static final double MAX_LOAD = 0.5;
+
+        private final FrozenCoef these, those;
+
+        // Per distinct product, in the order they were first made, as in a FrozenCoef.
+        private double[] coefficients;
+        private int[] starts;
+        private int[] hashes;
+        private long[] keys;
+        private int[] powers;
+        private int size, atoms;
+
+        // Indexes of the products, plus 1 so that 0 is an empty slot.
+        private int[] table;
+
+        private Product(FrozenCoef these, FrozenCoef those) {
+            this.these = these;
+            this.those = those;
+
+            int capacity = Math.max(4, these.getTermCount() + those.getTermCount());
+            this.coefficients = new double[capacity];
+            this.starts = new int[capacity + 1];
+            this.hashes = new int[capacity];
+            this.keys = new long[4 * capacity];
+            this.powers = new int[4 * capacity];
+            this.table = new int[Integer.highestOneBit(capacity) * 4];
+        }
+
+        /**
+         * Multiply every Term by every Term, this Term by this Term, adding like products new coefficient first
+         * and skipping zero products, as Coef.times(Coef) does.
+         *
+         * @return the product, or null if two of its Terms tie when sorted
+         */
+        private FrozenCoef multiply() {
+            for (int i = this.these.from; i < this.these.to; i++) {
+                for (int j = this.those.from; j < this.those.to; j++) {
+                    double numericalCoefficient = this.these.coefficients[i] * this.those.coefficients[j];
+                    if (numericalCoefficient == 0.0D) continue;
+
+                    this.add(i, j, numericalCoefficient);
+                }
+            }
+
+            return this.toCoef();
+        }
+
+        /**
+         * Add the product of two Terms: write its keys and powers after the last product, then keep them if no
+         * like product was made before, otherwise add to that one.
+         */
+        private void add(int thisTerm, int thatTerm, double numericalCoefficient) {
+            int i = this.these.starts[thisTerm], thisEnd = this.these.starts[thisTerm + 1];
+            int j = this.those.starts[thatTerm], thatEnd = this.those.starts[thatTerm + 1];
+
+            if (this.atoms + (thisEnd - i) + (thatEnd - j) > this.keys.length) {
+                int capacity = Math.max(2 * this.keys.length, this.atoms + (thisEnd - i) + (thatEnd - j));
+                this.keys = Arrays.copyOf(this.keys, capacity);
+                this.powers = Arrays.copyOf(this.powers, capacity);
+            }
+
+            // Merge the sorted keys, adding the powers of like keys and leaving out powers that add up to 0.
+            int start = this.atoms, end = start;
+            long[] theseKeys = this.these.keys, thoseKeys = this.those.keys;
+
+            while (i < thisEnd || j < thatEnd) {
+                if (j == thatEnd || (i < thisEnd && theseKeys[i] < thoseKeys[j])) {
+                    this.keys[end] = theseKeys[i];
+                    this.powers[end++] = this.these.powers[i++];
+                } else if (i == thisEnd || thoseKeys[j] < theseKeys[i]) {
+                    this.keys[end] = thoseKeys[j];
+                    this.powers[end++] = this.those.powers[j++];
+                } else {
+                    int power = this.these.powers[i++] + this.those.powers[j++];
+
+                    if (power != 0) {
+                        this.keys[end] = theseKeys[i - 1];
+                        this.powers[end++] = power;
+                    }
+                }
+            }
+
+            int hash = 1;
+
+            for (int k = start; k < end; k++) {
+                hash = 31 * (31 * hash + Long.hashCode(this.keys[k])) + this.powers[k];
+            }
+
+            hash ^= hash >>> 16;
+
+            int mask = this.table.length - 1;
+
+            // Linear probing
+            for (int slot = hash & mask, entry; (entry = this.table[slot]) != 0; slot = (slot + 1) & mask) {
+                int index = entry - 1;
+
+                if (this.hashes[index] == hash && this.isLike(index, start, end)) {
+                    this.coefficients[index] = numericalCoefficient + this.coefficients[index];
+                    return;
+                }
+            }
+
+            if (this.size == this.coefficients.length) {
+                this.coefficients = Arrays.copyOf(this.coefficients, 2 * this.size);
+                this.starts = Arrays.copyOf(this.starts, 2 * this.size + 1);
+                this.hashes = Arrays.copyOf(this.hashes, 2 * this.size);
+            }
+
+            this.coefficients[this.size] = numericalCoefficient;
+            this.hashes[this.size] = hash;
+            this.atoms = end;
+            this.starts[++this.size] = end;
+            this.insert(this.size - 1);
+
+            if (this.size > this.table.length * MAX_LOAD) {
+                this.table = new int[this.table.length * 2];
+
+                for (int index = 0; index < this.size; index++) {
+                    this.insert(index);
+                }
+            }
+        }
+
+        /**
+         * Check if a product has the keys and powers written from start to end.
+         */
+        private boolean isLike(int index, int start, int end) {
+            int from = this.starts[index], to = this.starts[index + 1];
+            return Arrays.equals(this.keys, from, to, this.keys, start, end)
+                    && Arrays.equals(this.powers, from, to, this.powers, start, end);
+        }
+
+        private void insert(int index) {
+            int mask = this.table.length - 1;
+            int slot = this.hashes[index] & mask;
+
+            while (this.table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            this.table[slot] = index + 1;
+        }
+
+        /**
+         * Sort the products that didn't cancel out into a FrozenCoef.
+         *
+         * @return the product, or null if two Terms tie when sorted
+         */
+        private FrozenCoef toCoef() {
+            Integer[] order = new Integer[this.size];
+            int length = 0;
+
+            for (int index = 0; index < this.size; index++) {
+                if (this.coefficients[index] != 0.0D) order[length++] = index;
+            }
+
+            order = Arrays.copyOf(order, length);
+            Arrays.sort(order, this::compare);
+
+            for (int i = 1; i < order.length; i++) {
+                if (this.compare(order[i - 1], order[i]) == 0) return null;
+            }
+
+            Builder builder = new Builder(order.length);
+            builder.keys = new long[this.atoms];
+            builder.powers = new int[this.atoms];
+
+            for (int index : order) {
+                int from = this.starts[index], to = this.starts[index + 1];
+
+                System.arraycopy(this.keys, from, builder.keys, builder.atoms, to - from);
+                System.arraycopy(this.powers, from, builder.powers, builder.atoms, to - from);
+                builder.atoms += to - from;
+
+                builder.coefficients[builder.terms++] = this.coefficients[index];
+                builder.starts[builder.terms] = builder.atoms;
+            }
+
+            return builder.toCoef(0, builder.terms);
+        }
+
+        /**
+         * Compare products the way {@link Term#compareTo(Term)} compares their Terms, constants last, with ties as 0.
+         */
+        private int compare(int index, int thatIndex) {
+            int from = this.starts[index], to = this.starts[index + 1];
+            int thatFrom = this.starts[thatIndex], thatTo = this.starts[thatIndex + 1];
+
+            if (from == to) return thatFrom == thatTo ? 0 : 1;
+            if (thatFrom == thatTo) return -1;
+
+            return TermOrder.compareMonomials(this.keys, this.powers, from, to, this.keys, this.powers, thatFrom, thatTo);
+        }
+    }
+}
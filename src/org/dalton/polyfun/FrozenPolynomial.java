@@ -0,0 +1,209 @@
+package org.dalton.polyfun;
+
+/**
+ * A FrozenPolynomial is a {@link Polynomial} that can't be changed, with the Terms of all its Coefs kept in one
+ * set of flat arrays, see {@link FrozenCoef}. Its Coefs are views of ranges of those arrays, in order of degree.
+ * <p>
+ * Make one with {@link Polynomial#freeze()} and turn it back into a Polynomial with {@link #thaw()}. If every
+ * Coef is a number, the numbers are kept in one more array, so evaluating it is Horner's scheme over that array.
+ *
+ * @since 1.3.0
+ */
+public final class FrozenPolynomial {
+    private final FrozenCoef[] coefs;
+
+    // The numerical coefficients by degree, or null if a Coef is not a number.
+    private final double[] coefficients;
+
+    /**
+     * Freeze the reduced Coefs of a Polynomial.
+     *
+     * @param coefs The reduced Coefs, by degree
+     * @throws AssertionError If a Term has null atoms.
+     */
+    FrozenPolynomial(Coef[] coefs) throws AssertionError {
+        int terms = 0;
+
+        for (Coef coef : coefs) {
+            terms += coef.getTerms().length;
+        }
+
+        FrozenCoef.Builder builder = new FrozenCoef.Builder(terms);
+        int[] starts = new int[coefs.length + 1];
+
+        for (int i = 0; i < coefs.length; i++) {
+            builder.add(coefs[i]);
+            starts[i + 1] = builder.size();
+        }
+
+        this.coefs = new FrozenCoef[coefs.length];
+        double[] coefficients = new double[coefs.length];
+
+        for (int i = 0; i < coefs.length; i++) {
+            this.coefs[i] = builder.toCoef(starts[i], starts[i + 1]);
+
+            if (coefficients == null) continue;
+
+            if (this.coefs[i].isConstantCoef()) {
+                coefficients[i] = this.coefs[i].getNumericalCoefficient(0);
+            } else if (!this.coefs[i].isZero()) {
+                coefficients = null;
+            }
+        }
+
+        this.coefficients = coefficients;
+    }
+
+    /**
+     * Get the degree.
+     *
+     * @return the degree of the polynomial
+     * @since 1.3.0
+     */
+    public int getDegree() {
+        return this.coefs.length - 1;
+    }
+
+    /**
+     * Get the Coef of a degree.
+     *
+     * @param index The degree
+     * @return the FrozenCoef at that degree
+     * @since 1.3.0
+     */
+    public FrozenCoef getCoefAt(int index) {
+        return this.coefs[index];
+    }
+
+    /**
+     * Determines if all the coefficients are constant, as {@link Polynomial#isPlottable()}.
+     *
+     * @return true if plottable
+     * @since 1.3.0
+     */
+    public boolean isPlottable() {
+        return this.coefficients != null;
+    }
+
+    /**
+     * Plug a number into the polynomial, giving the same result as {@link Polynomial#eval(double)}. Plottable
+     * polynomials are evaluated with Horner's scheme, without creating any objects; others are thawed first.
+     *
+     * @param x The value to plug into the polynomial
+     * @return the value of the polynomial at x
+     * @throws AssertionError If the polynomial is not plottable and doesn't evaluate to a number.
+     * @since 1.3.0
+     */
+    public double eval(double x) throws AssertionError {
+        if (this.coefficients != null) return Polynomial.horner(this.coefficients, x);
+
+        return this.thaw().eval(x);
+    }
+
+    /**
+     * Make a Polynomial with the same Coefs, which can be changed.
+     *
+     * @return the Polynomial
+     * @since 1.3.0
+     */
+    public Polynomial thaw() {
+        Coef[] coefs = new Coef[this.coefs.length];
+
+        for (int i = 0; i < coefs.length; i++) {
+            coefs[i] = this.coefs[i].thaw();
+        }
+
+        return new Polynomial(coefs);
+    }
+
+    /**
+     * Checks equality between FrozenPolynomials: the same degree and equal Coefs.
+     *
+     * @param object The object to compare this to
+     * @return true if equal
+     * @since 1.3.0
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof FrozenPolynomial)) return false;
+
+        FrozenPolynomial polynomial = (FrozenPolynomial) object;
+        if (this.coefs.length != polynomial.coefs.length) return false;
+
+        for (int i = 0; i < this.coefs.length; i++) {
+            if (!this.coefs[i].equals(polynomial.coefs[i])) return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+
+        for (FrozenCoef coef : this.coefs) {
+            hash = 31 * hash + coef.hashCode();
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns a printable string, the same as {@link Polynomial#toString()} gives.
+     *
+     * @return String representing the polynomial.
+     * @since 1.3.0
+     */
+    @Override
+    public String toString() {
+        StringBuilder string = new StringBuilder();
+
+        // Get each term of order 2 and higher
+        for (int i = this.getDegree(); i > 1; i--) {
+            if (this.coefs[i].isZero()) continue;
+
+            this.appendCoef(string, this.coefs[i]);
+            string.append("X^").append(i);
+
+            // Look back to see if there's any more coefs
+            int prev = i - 1;
+            while (prev > 0 && this.coefs[prev].isZero()) prev--;
+
+            // If not at end append a "+"
+            if (prev != 0) string.append("+");
+        }
+
+        // Get 1 and 0 degree term
+        if (this.getDegree() > 0) {
+            if (!this.coefs[1].isZero()) {
+                this.appendCoef(string, this.coefs[1]);
+                string.append("X");
+            }
+
+            // Get constant term (no X invariate)
+            if (!this.coefs[0].isZero()) {
+                String constant = this.coefs[0].toString();
+                if (!constant.startsWith("-")) string.append("+");
+                string.append(constant);
+            }
+        } else if (this.getDegree() == 0 && !this.coefs[0].isZero()) {
+            string.append(this.coefs[0].toString());
+        }
+
+        // Clean up the last +
+        int length = string.length();
+        if (length > 0 && string.charAt(length - 1) == '+') string.setLength(length - 1);
+
+        return string.toString();
+    }
+
+    /**
+     * Append the Coef of a power of X: nothing if it is 1.0, otherwise the Coef in ( ).
+     */
+    private void appendCoef(StringBuilder string, FrozenCoef coef) {
+        if (coef.isConstantCoef() && coef.getNumericalCoefficient(0) == 1.0) return;
+
+        string.append("(").append(coef.toString()).append(")");
+    }
+}
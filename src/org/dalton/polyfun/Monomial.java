@@ -0,0 +1,409 @@
+package org.dalton.polyfun;
+
+import java.util.Arrays;
+
+/**
+ * The product of the Atoms of a Term, stored as two arrays: a key for each letter and subscript, and the power
+ * it is raised to. The keys are in increasing order, which is the same order Term.reduce() puts its Atoms in,
+ * and no key appears twice.
+ * <p>
+ * For example: a_1^2 b^3 is stored as keys = {key('a', 1), key('b', -1)} and powers = {2, 3}
+ * <p>
+ * Each key packs the letter into the high 32 bits and the subscript, shifted to be unsigned, into the low 32
+ * bits, so comparing keys compares letters first and then subscripts, like {@link Atom#isLessThan(Atom)}.
+ * That makes multiplying two Monomials a merge of sorted arrays, and checking if two are equal or like
+ * a comparison of arrays. Monomials can't be changed once made.
+ */
+final class Monomial {
+    // The Monomial with no Atoms, i.e. the Monomial of a constant Term.
+    static final Monomial ONE = new Monomial(new long[0], new int[0]);
+
+    private final long[] keys;
+    private final int[] powers;
+
+    // A bit for each key with a power other than 0, see variables().
+    private final long variables;
+
+    // Computed when first needed, since interning looks up every Monomial a product returns.
+    private int hash;
+
+    private Monomial(long[] keys, int[] powers) {
+        this.keys = keys;
+        this.powers = powers;
+
+        long variables = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (powers[i] != 0) variables |= 1L << (mix(keys[i]) >>> 58);
+        }
+
+        this.variables = variables;
+    }
+
+    /**
+     * Make a Monomial from Atoms that are already reduced, i.e. in order with no two like Atoms.
+     *
+     * @param atoms The reduced Atoms
+     * @return the Monomial
+     */
+    static Monomial of(Atom[] atoms) {
+        if (atoms.length == 0) return ONE;
+
+        long[] keys = new long[atoms.length];
+        int[] powers = new int[atoms.length];
+
+        for (int i = 0; i < atoms.length; i++) {
+            keys[i] = key(atoms[i]);
+            powers[i] = atoms[i].getPower();
+        }
+
+        return new Monomial(keys, powers);
+    }
+
+    /**
+     * Make a Monomial from a range of keys and powers that are already in order with no key twice. The arrays
+     * are copied.
+     *
+     * @param keys   The keys
+     * @param powers The powers of the keys
+     * @param from   The index of the first key
+     * @param to     The index after the last key
+     * @return the Monomial
+     */
+    static Monomial of(long[] keys, int[] powers, int from, int to) {
+        if (from == to) return ONE;
+
+        return new Monomial(Arrays.copyOfRange(keys, from, to), Arrays.copyOfRange(powers, from, to));
+    }
+
+    /**
+     * Puts Atoms in order and combines like Atoms by adding their powers, leaving out Atoms with a power of 0.
+     * This gives the same Atoms as Term.reduce() always has: an Atom that is not combined with another is
+     * kept as it is, and combined Atoms become a new Atom.
+     *
+     * @param atoms The Atoms in any order. The array is not changed.
+     * @return the reduced Atoms, in a new array
+     */
+    static Atom[] reduce(Atom[] atoms) {
+        Atom[] sorted = new Atom[atoms.length];
+        long[] keys = new long[atoms.length];
+        int count = 0;
+
+        // Insertion sort, since Terms have few Atoms. It's stable, so like Atoms combine in the order given.
+        for (Atom atom : atoms) {
+            if (atom.getPower() == 0) continue;
+
+            long key = key(atom);
+            int i = count++;
+
+            for (; i > 0 && keys[i - 1] > key; i--) {
+                sorted[i] = sorted[i - 1];
+                keys[i] = keys[i - 1];
+            }
+
+            sorted[i] = atom;
+            keys[i] = key;
+        }
+
+        int length = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (length > 0 && keys[length - 1] == keys[i]) sorted[length - 1] = sorted[length - 1].timesLikeAtom(sorted[i]);
+            else {
+                sorted[length] = sorted[i];
+                keys[length++] = keys[i];
+            }
+        }
+
+        return length == sorted.length ? sorted : Arrays.copyOf(sorted, length);
+    }
+
+    /**
+     * The key of an Atom's letter and subscript.
+     *
+     * @param atom The Atom
+     * @return the key
+     */
+    static long key(Atom atom) {
+        return key(atom.getLetter(), atom.getSubscript());
+    }
+
+    /**
+     * The key of a letter and subscript: the letter in the high 32 bits, and the subscript shifted from
+     * [-2^31, 2^31) to [0, 2^32) in the low 32 bits.
+     *
+     * @param letter    The letter
+     * @param subscript The subscript, -1 for none
+     * @return the key
+     */
+    static long key(char letter, int subscript) {
+        return ((long) letter << 32) | ((subscript ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get the number of letter and subscript pairs.
+     *
+     * @return the number of Atoms this stands for
+     */
+    int size() {
+        return this.keys.length;
+    }
+
+    /**
+     * Get a key.
+     *
+     * @param index The index of the key, in order
+     * @return the key
+     */
+    long keyAt(int index) {
+        return this.keys[index];
+    }
+
+    /**
+     * Get the power of a key.
+     *
+     * @param index The index of the key, in order
+     * @return the power
+     */
+    int powerAt(int index) {
+        return this.powers[index];
+    }
+
+    /**
+     * Make new Atoms for this Monomial.
+     *
+     * @return the Atoms, in order
+     */
+    Atom[] toAtoms() {
+        Atom[] atoms = new Atom[this.keys.length];
+
+        for (int i = 0; i < atoms.length; i++) {
+            atoms[i] = this.toAtom(i);
+        }
+
+        return atoms;
+    }
+
+    /**
+     * Make a new Atom of one key and its power.
+     *
+     * @param index The index of the key, in order
+     * @return the Atom
+     */
+    Atom toAtom(int index) {
+        long key = this.keys[index];
+        return new Atom((char) (key >>> 32), (int) key ^ Integer.MIN_VALUE, this.powers[index]);
+    }
+
+    /**
+     * Check if an array of Atoms is exactly this Monomial, Atom by Atom, and is fully reduced. This takes one
+     * pass over the array, so a Term can check that its Atoms haven't been changed since its Monomial was made.
+     * Atoms with a power of 0, which are left when like Atoms cancel, are not fully reduced, since reducing
+     * again removes them.
+     *
+     * @param atoms The Atoms to check
+     * @return true if the Atoms have this Monomial's letters, subscripts and powers, in the same order, and no
+     * power is 0
+     */
+    boolean matches(Atom[] atoms) {
+        if (atoms.length != this.keys.length) return false;
+
+        for (int i = 0; i < atoms.length; i++) {
+            if (!this.matches(i, atoms[i])) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Check if one or two Atoms are exactly this Monomial, as {@link #matches(Atom[])} does for an array of them.
+     *
+     * @param first  The first Atom
+     * @param second The second Atom, or null if there is only one
+     * @return true if the Atoms have this Monomial's letters, subscripts and powers, in the same order, and no
+     * power is 0
+     */
+    boolean matches(Atom first, Atom second) {
+        if (this.keys.length != (second == null ? 1 : 2)) return false;
+
+        return this.matches(0, first) && (second == null || this.matches(1, second));
+    }
+
+    private boolean matches(int index, Atom atom) {
+        int power = this.powers[index];
+        return power != 0 && key(atom) == this.keys[index] && atom.getPower() == power;
+    }
+
+    /**
+     * Multiply two Monomials by merging their keys and adding the powers of like keys. Keys with a power of 0
+     * are left out of the product, and like keys whose powers add up to 0 are kept, the same as reducing the
+     * Atoms of both together.
+     *
+     * @param monomial The Monomial to multiply by
+     * @return the product
+     */
+    Monomial times(Monomial monomial) {
+        long[] keys = new long[this.keys.length + monomial.keys.length];
+        int[] powers = new int[keys.length];
+        int i = 0, j = 0, length = 0;
+
+        while (i < this.keys.length || j < monomial.keys.length) {
+            if (j == monomial.keys.length || (i < this.keys.length && this.keys[i] < monomial.keys[j])) {
+                if (this.powers[i] != 0) {
+                    keys[length] = this.keys[i];
+                    powers[length++] = this.powers[i];
+                }
+
+                i++;
+            } else if (i == this.keys.length || monomial.keys[j] < this.keys[i]) {
+                if (monomial.powers[j] != 0) {
+                    keys[length] = monomial.keys[j];
+                    powers[length++] = monomial.powers[j];
+                }
+
+                j++;
+            } else {
+                keys[length] = this.keys[i];
+                powers[length++] = this.powers[i++] + monomial.powers[j++];
+            }
+        }
+
+        if (length == keys.length) return new Monomial(keys, powers);
+
+        return new Monomial(Arrays.copyOf(keys, length), Arrays.copyOf(powers, length));
+    }
+
+    /**
+     * Leave out the keys with a power of 0, as reducing the Atoms of a Term again does.
+     *
+     * @return this if no power is 0, otherwise a new Monomial
+     */
+    Monomial withoutZeroPowers() {
+        int nonZero = 0;
+
+        for (int power : this.powers) {
+            if (power != 0) nonZero++;
+        }
+
+        if (nonZero == this.powers.length) return this;
+
+        long[] keys = new long[nonZero];
+        int[] powers = new int[nonZero];
+
+        for (int i = 0, j = 0; i < this.powers.length; i++) {
+            if (this.powers[i] != 0) {
+                keys[j] = this.keys[i];
+                powers[j++] = this.powers[i];
+            }
+        }
+
+        return new Monomial(keys, powers);
+    }
+
+    /**
+     * Compare Monomials in lexicographic order: by the power of the smallest key, then the next key, and so on,
+     * where a missing key has a power of 0. Multiplying two Monomials by the same Monomial keeps their order,
+     * so the products of one Monomial with Monomials in order are also in order.
+     *
+     * @param monomial The Monomial to compare this to
+     * @return negative, zero or positive as this is less than, equal to or greater than the Monomial
+     */
+    int compareTo(Monomial monomial) {
+        int i = 0, j = 0;
+
+        while (i < this.keys.length || j < monomial.keys.length) {
+            int thisPower, thatPower;
+
+            if (j == monomial.keys.length || (i < this.keys.length && this.keys[i] < monomial.keys[j])) {
+                thisPower = this.powers[i++];
+                thatPower = 0;
+            } else if (i == this.keys.length || monomial.keys[j] < this.keys[i]) {
+                thisPower = 0;
+                thatPower = monomial.powers[j++];
+            } else {
+                thisPower = this.powers[i++];
+                thatPower = monomial.powers[j++];
+            }
+
+            if (thisPower != thatPower) return Integer.compare(thisPower, thatPower);
+        }
+
+        return 0;
+    }
+
+    /**
+     * A hash where the hash of a product is the sum of the hashes of its factors: each key is mixed into a
+     * random-looking number, and the numbers are added up, each times its power. Keys with a power of 0 add
+     * nothing, so leaving them out gives the same hash.
+     *
+     * @return the hash
+     */
+    long additiveHash() {
+        long hash = 0;
+
+        for (int i = 0; i < this.keys.length; i++) {
+            hash += mix(this.keys[i]) * this.powers[i];
+        }
+
+        return hash;
+    }
+
+    /**
+     * The letters and subscripts in this Monomial as a set of bits: each key with a power other than 0 sets one
+     * of the 64 bits, picked from its hash. Monomials with no bits in common have no letter and subscript in
+     * common, so checking that takes one AND. Monomials with bits in common may or may not share one, since
+     * different keys can set the same bit. A Monomial with no bits is a constant.
+     *
+     * @return the bits
+     */
+    long variables() {
+        return this.variables;
+    }
+
+    /**
+     * Mix a key into a random-looking number.
+     */
+    private static long mix(long key) {
+        long mixed = (key ^ (key >>> 31)) * 0x9E3779B97F4A7C15L;
+        return mixed ^ (mixed >>> 29);
+    }
+
+    /**
+     * Test to see if two Monomials have the same letters and subscripts, whatever their powers.
+     *
+     * @param monomial Monomial to compare this to
+     * @return true if they are "like"
+     */
+    boolean isLike(Monomial monomial) {
+        return Arrays.equals(this.keys, monomial.keys);
+    }
+
+    /**
+     * Check equality between Monomials: the same letters and subscripts with the same powers.
+     *
+     * @param object Monomial to compare this to
+     * @return true if they are equal
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof Monomial)) return false;
+
+        Monomial monomial = (Monomial) object;
+        if (this.hash != 0 && monomial.hash != 0 && this.hash != monomial.hash) return false;
+
+        return Arrays.equals(this.keys, monomial.keys) && Arrays.equals(this.powers, monomial.powers);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.hash;
+
+        if (hash == 0) {
+            hash = 31 * Arrays.hashCode(this.keys) + Arrays.hashCode(this.powers);
+            this.hash = hash;
+        }
+
+        return hash;
+    }
+}
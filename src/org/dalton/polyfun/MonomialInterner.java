@@ -0,0 +1,60 @@
+package org.dalton.polyfun;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shares one Monomial between all the Terms with the same letters, subscripts and powers. Big expansions make
+ * the same few Monomials over and over, so interning the Monomials of the Terms they make keeps one copy of each,
+ * and equal Monomials are then the same object. Products intern the Terms they return, after like products are
+ * combined, see {@link Term#intern(Term[])}. Monomials can't be changed, so sharing them is safe.
+ * <p>
+ * The table only holds weak references, so a Monomial is dropped once no Term uses it. It is split into stripes,
+ * each with its own lock, so threads multiplying in parallel rarely wait on each other.
+ */
+final class MonomialInterner {
+    // Number of stripes, a power of 2.
+    private static final int STRIPES = 16;
+
+    private static final Stripe[] stripes = new Stripe[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private MonomialInterner() {
+    }
+
+    /**
+     * Get the shared Monomial equal to this one, making this one the shared one if there isn't one yet.
+     *
+     * @param monomial The Monomial
+     * @return the shared Monomial
+     */
+    static Monomial intern(Monomial monomial) {
+        if (monomial.size() == 0) return Monomial.ONE;
+
+        int hash = monomial.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+
+        synchronized (stripe) {
+            WeakReference<Monomial> reference = stripe.monomials.get(monomial);
+            Monomial shared = reference == null ? null : reference.get();
+            if (shared != null) return shared;
+
+            stripe.monomials.put(monomial, new WeakReference<>(monomial));
+            return monomial;
+        }
+    }
+
+    /**
+     * The shared Monomials in one stripe. Guarded by the Stripe.
+     */
+    private static final class Stripe {
+        // The Monomial is the key, weakly held, and the value refers back to it, also weakly, so it can be found.
+        private final Map<Monomial, WeakReference<Monomial>> monomials = new WeakHashMap<>();
+    }
+}
@@ -0,0 +1,389 @@
+package org.dalton.polyfun;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * An optional cache of the results of expensive operations: {@link Coef#times(Coef)},
+ * {@link Polynomial#times(Polynomial)}, {@link Polynomial#of(Polynomial)} and {@link Polynomial#raiseTo(int)}.
+ * It is off until turned on with {@link #setEnabled(boolean)}.
+ * <p>
+ * Results are looked up by the contents of the operands, so structurally identical inputs share a result even
+ * if they are different objects. The key holds every numerical coefficient, Atom and Term in order, and the
+ * settings that can change the rounding of a result, so a cached result is always the one the operation
+ * would have made. Results are copied going in and coming out, so changing a result never changes the cache.
+ * Only the operation called is cached: the Coef products a Polynomial product is made of are not, so they
+ * don't crowd out the result.
+ * <p>
+ * The cache is split into stripes, each with its own lock and share of the maximum weight, so threads
+ * working on different keys rarely wait on each other. The weight of an entry is the number of Terms in its
+ * operands and result, and each stripe drops its least recently used entries when it goes over its share.
+ * <p>
+ * Example: {@code OperationCache.setEnabled(true);} then {@code p.of(q)} is only computed once for each
+ * different p and q.
+ *
+ * @since 1.3.0
+ */
+public final class OperationCache {
+    // Operations, for the keys.
+    static final int COEF_TIMES = 1;
+    static final int POLYNOMIAL_TIMES = 2;
+    static final int POLYNOMIAL_OF = 3;
+    static final int POLYNOMIAL_RAISE_TO = 4;
+
+    // Not an operation this caches, but the key of the Coefs a Polynomial's lowest powers were made from.
+    static final int POLYNOMIAL_POWERS = 5;
+
+    // Number of stripes, a power of 2.
+    private static final int STRIPES = 16;
+
+    private static volatile boolean enabled = false;
+    private static volatile long maximumWeight = 1L << 20;
+
+    private static final Stripe[] stripes = new Stripe[STRIPES];
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private OperationCache() {
+    }
+
+    /**
+     * Check if results are being cached.
+     *
+     * @return true if the cache is on
+     * @since 1.3.0
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the most Terms the cache holds, counting the operands and result of each entry.
+     *
+     * @return the maximum weight
+     * @since 1.3.0
+     */
+    public static long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Get the number of Terms the cache holds now, counting the operands and result of each entry.
+     *
+     * @return the weight
+     * @since 1.3.0
+     */
+    public static long getWeight() {
+        long weight = 0;
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                weight += stripe.weight;
+            }
+        }
+
+        return weight;
+    }
+
+    /**
+     * Get the number of results in the cache.
+     *
+     * @return the number of entries
+     * @since 1.3.0
+     */
+    public static int getSize() {
+        int size = 0;
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Get the number of operations whose result was found in the cache, since the last {@link #clear()}.
+     *
+     * @return the number of hits
+     * @since 1.3.0
+     */
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of operations whose result was not in the cache and had to be computed, since the last
+     * {@link #clear()}.
+     *
+     * @return the number of misses
+     * @since 1.3.0
+     */
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Turn caching on or off. Turning it off keeps the cached results, but they aren't used until it is
+     * turned back on.
+     *
+     * @param enable true to cache results
+     * @since 1.3.0
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * Set the most Terms the cache holds, counting the operands and result of each entry. The least recently
+     * used entries are dropped right away if it holds more.
+     *
+     * @param weight The new maximum weight. Must be at least 1.
+     * @since 1.3.0
+     */
+    public static void setMaximumWeight(long weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException(String.format("Invalid maximum weight %d, must be at least 1.", weight));
+        }
+
+        maximumWeight = weight;
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.evict();
+            }
+        }
+    }
+
+    /**
+     * Drop every cached result and reset the hit and miss counts.
+     *
+     * @since 1.3.0
+     */
+    public static void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.entries.clear();
+                stripe.weight = 0;
+            }
+        }
+
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Get a cached Coef, or compute and cache it.
+     *
+     * @param key       The operation and operands
+     * @param operation Computes the result if it isn't cached
+     * @return a copy of the result
+     */
+    static Coef coef(Key key, Supplier<Coef> operation) {
+        Coef cached = (Coef) get(key);
+        if (cached != null) return cached.copy();
+
+        Coef result = operation.get();
+        put(key, result.copy(), result.getTerms().length);
+        return result;
+    }
+
+    /**
+     * Get a cached Polynomial, or compute and cache it.
+     *
+     * @param key       The operation and operands
+     * @param operation Computes the result if it isn't cached
+     * @return a copy of the result
+     */
+    static Polynomial polynomial(Key key, Supplier<Polynomial> operation) {
+        Polynomial cached = (Polynomial) get(key);
+        if (cached != null) return cached.copy();
+
+        Polynomial result = operation.get();
+        Polynomial copy = result.copy();
+        int terms = 0;
+
+        for (Coef coef : copy.getCoefs()) {
+            terms += coef.getTerms().length;
+        }
+
+        put(key, copy, terms);
+        return result;
+    }
+
+    private static Object get(Key key) {
+        Stripe stripe = stripes[key.hash & (STRIPES - 1)];
+        Entry entry;
+
+        synchronized (stripe) {
+            entry = stripe.entries.get(key);
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.result;
+    }
+
+    private static void put(Key key, Object result, int resultTerms) {
+        Stripe stripe = stripes[key.hash & (STRIPES - 1)];
+        Entry entry = new Entry(result, key.terms + resultTerms + 1);
+
+        synchronized (stripe) {
+            Entry previous = stripe.entries.put(key, entry);
+            if (previous != null) stripe.weight -= previous.weight;
+
+            stripe.weight += entry.weight;
+            stripe.evict();
+        }
+    }
+
+    /**
+     * The results in one stripe, least recently used first. Guarded by the Stripe.
+     */
+    private static final class Stripe {
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        /**
+         * Drop the least recently used entries until this stripe is within its share of the maximum weight.
+         */
+        private void evict() {
+            long share = Math.max(1, maximumWeight / STRIPES);
+            Iterator<Map.Entry<Key, Entry>> eldest = this.entries.entrySet().iterator();
+
+            while (this.weight > share && eldest.hasNext()) {
+                this.weight -= eldest.next().getValue().weight;
+                eldest.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Object result;
+        private final long weight;
+
+        private Entry(Object result, long weight) {
+            this.result = result;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * The contents of an operation and its operands, written out as numbers: for each Coef, the number of
+     * Terms, then for each Term the bits of its numerical coefficient, the number of Atoms, and the letter,
+     * subscript and power of each Atom. A missing array or Coef is written as -1.
+     */
+    static final class Key {
+        private final long[] contents;
+        private final int hash;
+
+        // The number of Terms in the operands.
+        private final int terms;
+
+        private Key(long[] contents, int terms) {
+            this.contents = contents;
+            this.terms = terms;
+
+            int hash = Arrays.hashCode(contents);
+            this.hash = hash ^ (hash >>> 16);
+        }
+
+        /**
+         * Make the key of an operation.
+         *
+         * @param operation  The operation, e.g. {@link #COEF_TIMES}
+         * @param parameters Numbers that change the result, e.g. the power
+         * @param operands   The Coefs and Polynomials operated on
+         * @return the key
+         */
+        static Key of(int operation, long[] parameters, Object... operands) {
+            Writer writer = new Writer();
+            writer.write(operation);
+            writer.write(parameters.length);
+
+            for (long parameter : parameters) {
+                writer.write(parameter);
+            }
+
+            for (Object operand : operands) {
+                if (operand instanceof Coef) {
+                    writer.write((Coef) operand);
+                } else {
+                    Coef[] coefs = ((Polynomial) operand).getCoefs();
+                    writer.write(coefs == null ? -1 : coefs.length);
+
+                    if (coefs != null) {
+                        for (Coef coef : coefs) {
+                            writer.write(coef);
+                        }
+                    }
+                }
+            }
+
+            return new Key(Arrays.copyOf(writer.contents, writer.length), writer.terms);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (!(object instanceof Key)) return false;
+
+            Key key = (Key) object;
+            return this.hash == key.hash && Arrays.equals(this.contents, key.contents);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * Writes the numbers of a Key into a growing array.
+     */
+    private static final class Writer {
+        private long[] contents = new long[64];
+        private int length;
+        private int terms;
+
+        private void write(long value) {
+            if (this.length == this.contents.length) this.contents = Arrays.copyOf(this.contents, this.length * 2);
+            this.contents[this.length++] = value;
+        }
+
+        private void write(Coef coef) {
+            Term[] terms = coef == null ? null : coef.getTerms();
+            this.write(terms == null ? -1 : terms.length);
+            if (terms == null) return;
+
+            this.terms += terms.length;
+
+            for (Term term : terms) {
+                int atoms = term.hasNullAtoms() ? -1 : term.getAtomCount();
+                this.write(Double.doubleToRawLongBits(term.getNumericalCoefficient()));
+                this.write(atoms);
+
+                for (int i = 0; i < atoms; i++) {
+                    this.write(term.getKey(i));
+                    this.write(term.getPower(i));
+                }
+            }
+        }
+    }
+}
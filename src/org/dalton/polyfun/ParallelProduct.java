@@ -0,0 +1,251 @@
+package org.dalton.polyfun;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Multiplies the Terms of two Coefs across a ForkJoinPool. The products are split by their Monomial into
+ * buckets, and each bucket combines its like products in its own {@link TermAccumulator}. The buckets hold
+ * different Monomials, so the result is only a matter of putting their Terms together.
+ * <p>
+ * The rows of the product, one per Term of the first factor, are taken a block at a time, in two steps:
+ * <ul>
+ * <li>The rows of the block are split across the pool, and each row puts its columns in order of bucket. Which
+ * bucket a product falls in is found without making the product, from {@link Monomial#additiveHash()}: the
+ * hash of a product is the sum of the hashes of its factors, so each pair costs an addition and is looked at
+ * once.</li>
+ * <li>The buckets are split across the pool, and each bucket goes through the rows of the block in order,
+ * making and adding just its own products.</li>
+ * </ul>
+ * So every bucket sees its products this Term by this Term, in the same order as Coef.times(Coef), and like
+ * products are added in the same order: the result is identical to the sequential one. A block is kept to about
+ * {@value #BLOCK_PAIRS} pairs, so the columns in bucket order take a bounded amount of memory.
+ */
+final class ParallelProduct extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    // Most pairs of Terms put in bucket order at a time.
+    private static final int BLOCK_PAIRS = 1 << 18;
+
+    private final Product product;
+
+    // True to put the columns of rows from to to in bucket order, false to add the products of buckets from to to.
+    private final boolean ordering;
+    private final int from, to;
+
+    private ParallelProduct(Product product, boolean ordering, int from, int to) {
+        this.product = product;
+        this.ordering = ordering;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Multiply every Term by every Term, combining like products, in a ForkJoinPool.
+     *
+     * @param these The reduced Terms of the first factor
+     * @param those The reduced Terms of the second factor
+     * @param pool  The pool to run the tasks in
+     * @return the sorted Terms of the product, leaving out like products that cancelled out, or null if a Term
+     * has null atoms or the Terms tie when sorted, so the order they were made in matters
+     */
+    static Term[] multiply(Term[] these, Term[] those, ForkJoinPool pool) {
+        Monomial[] theseMonomials = monomials(these);
+        Monomial[] thoseMonomials = monomials(those);
+        if (theseMonomials == null || thoseMonomials == null) return null;
+
+        // A few buckets per thread, so a thread that finishes early can take another.
+        Product product = new Product(these, those, theseMonomials, thoseMonomials, 4 * pool.getParallelism());
+        int rows = Math.max(1, BLOCK_PAIRS / those.length);
+
+        for (int row = 0; row < these.length; row += rows) {
+            product.startBlock(row, Math.min(these.length, row + rows));
+            pool.invoke(new ParallelProduct(product, true, product.blockFrom, product.blockTo));
+            pool.invoke(new ParallelProduct(product, false, 0, product.buckets));
+        }
+
+        Term[] terms = product.toTerms();
+
+        // Each bucket is already sorted, so this merges them.
+        Arrays.sort(terms);
+        return Term.hasSortTies(terms) ? null : terms;
+    }
+
+    @Override
+    protected void compute() {
+        // Split rows into about as many pieces as there are buckets, and buckets into one each.
+        int pieces = this.ordering
+                ? (this.product.blockTo - this.product.blockFrom + this.product.buckets - 1) / this.product.buckets
+                : 1;
+
+        if (this.to - this.from <= Math.max(1, pieces)) {
+            if (this.ordering) this.product.orderRows(this.from, this.to);
+            else this.product.addBuckets(this.from, this.to);
+            return;
+        }
+
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(new ParallelProduct(this.product, this.ordering, this.from, middle),
+                new ParallelProduct(this.product, this.ordering, middle, this.to));
+    }
+
+    /**
+     * The Monomials of the Terms, or null if a Term has null atoms.
+     */
+    private static Monomial[] monomials(Term[] terms) {
+        Monomial[] monomials = new Monomial[terms.length];
+
+        for (int i = 0; i < terms.length; i++) {
+            if (terms[i].hasNullAtoms()) return null;
+            monomials[i] = terms[i].getMonomial();
+        }
+
+        return monomials;
+    }
+
+    /**
+     * The factors, the buckets of products made so far, and the current block of rows in bucket order. The
+     * block is only changed between the steps, while no task is running.
+     */
+    private static final class Product {
+        private final Term[] these, those;
+        private final Monomial[] theseMonomials, thoseMonomials;
+        private final long[] theseHashes, thoseHashes;
+        private final int buckets;
+        private final TermAccumulator[] accumulators;
+
+        // The rows of the block.
+        private int blockFrom, blockTo;
+
+        // For each row of the block, its columns in bucket order, and where each bucket starts in them.
+        private final int[] columns;
+        private final int[] starts;
+
+        private Product(Term[] these, Term[] those, Monomial[] theseMonomials, Monomial[] thoseMonomials,
+                        int buckets) {
+            this.these = these;
+            this.those = those;
+            this.theseMonomials = theseMonomials;
+            this.thoseMonomials = thoseMonomials;
+            this.theseHashes = hashes(theseMonomials);
+            this.thoseHashes = hashes(thoseMonomials);
+            this.buckets = buckets;
+            this.accumulators = new TermAccumulator[buckets];
+
+            for (int i = 0; i < buckets; i++) {
+                this.accumulators[i] = new TermAccumulator((these.length + those.length) / buckets);
+            }
+
+            int rows = Math.min(these.length, Math.max(1, BLOCK_PAIRS / those.length));
+            this.columns = new int[rows * those.length];
+            this.starts = new int[rows * (buckets + 1)];
+        }
+
+        private void startBlock(int from, int to) {
+            this.blockFrom = from;
+            this.blockTo = to;
+        }
+
+        /**
+         * Put the columns of some rows of the block in bucket order, keeping columns in the same bucket in order.
+         */
+        private void orderRows(int from, int to) {
+            int[] bucketOf = new int[this.those.length];
+
+            for (int i = from; i < to; i++) {
+                int row = i - this.blockFrom;
+                int columns = row * this.those.length;
+                int starts = row * (this.buckets + 1);
+
+                // Count each bucket, one place along, then add up the counts to get where each bucket starts.
+                Arrays.fill(this.starts, starts, starts + this.buckets + 1, 0);
+
+                for (int j = 0; j < this.those.length; j++) {
+                    bucketOf[j] = this.bucket(this.theseHashes[i] + this.thoseHashes[j]);
+                    this.starts[starts + bucketOf[j] + 1]++;
+                }
+
+                for (int bucket = 0; bucket < this.buckets; bucket++) {
+                    this.starts[starts + bucket + 1] += this.starts[starts + bucket];
+                }
+
+                // Place the columns, moving each bucket's start along as it fills, then move the starts back.
+                for (int j = 0; j < this.those.length; j++) {
+                    this.columns[columns + this.starts[starts + bucketOf[j]]++] = j;
+                }
+
+                for (int bucket = this.buckets; bucket > 0; bucket--) {
+                    this.starts[starts + bucket] = this.starts[starts + bucket - 1];
+                }
+
+                this.starts[starts] = 0;
+            }
+        }
+
+        /**
+         * Make and add the products of some buckets, row by row through the block.
+         */
+        private void addBuckets(int from, int to) {
+            for (int bucket = from; bucket < to; bucket++) {
+                TermAccumulator accumulator = this.accumulators[bucket];
+
+                for (int i = this.blockFrom; i < this.blockTo; i++) {
+                    int row = i - this.blockFrom;
+                    int columns = row * this.those.length;
+                    int starts = row * (this.buckets + 1);
+                    double numericalCoefficient = this.these[i].getNumericalCoefficient();
+
+                    for (int k = this.starts[starts + bucket]; k < this.starts[starts + bucket + 1]; k++) {
+                        int j = this.columns[columns + k];
+                        Monomial monomial = this.theseMonomials[i].times(this.thoseMonomials[j]).withoutZeroPowers();
+                        accumulator.add(monomial, numericalCoefficient * this.those[j].getNumericalCoefficient());
+                    }
+                }
+            }
+        }
+
+        /**
+         * The Terms of every bucket, each bucket sorted, leaving out like products that cancelled out.
+         */
+        private Term[] toTerms() {
+            Term[][] buckets = new Term[this.buckets][];
+            int length = 0;
+
+            for (int bucket = 0; bucket < this.buckets; bucket++) {
+                buckets[bucket] = this.accumulators[bucket].toTerms(true);
+                length += buckets[bucket].length;
+            }
+
+            Term[] terms = new Term[length];
+            length = 0;
+
+            for (Term[] bucket : buckets) {
+                System.arraycopy(bucket, 0, terms, length, bucket.length);
+                length += bucket.length;
+            }
+
+            return terms;
+        }
+
+        /**
+         * The bucket of a product, from its additive hash.
+         */
+        private int bucket(long hash) {
+            // Mix the bits, since the sum of a few hashes is not spread well, then scale to the number of buckets.
+            hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            return (int) (((hash >>> 32) * this.buckets) >>> 32);
+        }
+
+        private static long[] hashes(Monomial[] monomials) {
+            long[] hashes = new long[monomials.length];
+
+            for (int i = 0; i < monomials.length; i++) {
+                hashes[i] = monomials[i].additiveHash();
+            }
+
+            return hashes;
+        }
+    }
+}
@@ -1,5 +1,16 @@
 package org.dalton.polyfun;
 
+import java.lang.ref.SoftReference;
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleUnaryOperator;
+
 /**
  * A Polynomial is a polynomial in X with a certain degree and a set of coefficients. These coefficients may be
  * specific values (doubles) or abstract variables depending on the situation. In the documentation for this class,
@@ -21,9 +32,45 @@ package org.dalton.polyfun;
  * @author Katie Jergens (wrote refactored version based on Dr. Gomprecht's object, maintaining the interface)
  */
 public class Polynomial {
+    // How many values eval(DoubleBuffer, DoubleBuffer) copies at a time from buffers without a backing array.
+    private static final int BUFFER_BLOCK_SIZE = 1024;
+
+    // How many values each task of evalParallel(double[], double[]) evaluates at most.
+    private static final int DEFAULT_PARALLEL_GRANULARITY = 16384;
+
+    // How many functions compile() keeps, dropping the least recently used.
+    private static final int MAX_COMPILED_EVALUATORS = 256;
+
+    // Functions made by compile(), keyed by coefficient values. Guarded by itself.
+    private static final Map<CoefficientsKey, DoubleUnaryOperator> COMPILED_EVALUATORS =
+            new LinkedHashMap<CoefficientsKey, DoubleUnaryOperator>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CoefficientsKey, DoubleUnaryOperator> eldest) {
+                    return this.size() > MAX_COMPILED_EVALUATORS;
+                }
+            };
+
+    // Plottable products where both factors have at least this degree are multiplied with Karatsuba's method.
+    private static volatile int karatsubaThreshold = 32;
+
+    // If true, times(Polynomial) computes the degrees of products of Coefs in parallel.
+    private static volatile boolean parallelMultiplication = false;
+
+    // Powers below this are raised by repeated multiplication, which matches earlier versions bit for bit.
+    // With schoolbook products it costs about the same as squaring, since each step multiplies by a short factor.
+    static final int MIN_SQUARING_POWER = 8;
+
+    // Most powers, and most Terms in all, that a Polynomial keeps of itself for raiseTo(int) and of(Polynomial).
+    private static final int MAX_CACHED_POWERS = 16;
+    private static final int MAX_CACHED_POWER_TERMS = 1 << 16;
+
     private int degree;
     private Coef[] coefs;
 
+    // This Polynomial to the powers 1, 2, 3, ... made by repeated multiplication, as many as fit. Softly held,
+    // so they go when memory runs short, and never handed out, since callers could change them.
+    private volatile SoftReference<Powers> powers;
+
     /**
      * Default constructor.
      *
@@ -365,6 +412,27 @@ public class Polynomial {
         return this.coefs;
     }
 
+    /**
+     * Get the degree at which multiplication of numerical coefficients switches from the schoolbook method to
+     * Karatsuba's method.
+     *
+     * @return the Karatsuba threshold
+     * @since 1.3.0
+     */
+    public static int getKaratsubaThreshold() {
+        return karatsubaThreshold;
+    }
+
+    /**
+     * Check if {@link #times(Polynomial)} computes the degrees of the product in parallel.
+     *
+     * @return true if parallel multiplication is on
+     * @since 1.3.0
+     */
+    public static boolean isParallelMultiplication() {
+        return parallelMultiplication;
+    }
+
     /**
      * Sets the degree of the Polynomial.
      *
@@ -374,6 +442,7 @@ public class Polynomial {
     public void setDegree(int degree) {
         this.degree = degree;
         this.coefs = new Coef[degree + 1];
+        this.powers = null;
     }
 
     /**
@@ -388,7 +457,7 @@ public class Polynomial {
         this.coefs = new Coef[this.degree + 1];
 
         System.arraycopy(coefs, 0, this.coefs, 0, this.degree + 1);
-
+        this.powers = null;
     }
 
     /**
@@ -406,6 +475,7 @@ public class Polynomial {
             this.coefs[i] = new Coef(nums[i]);
         }
 
+        this.powers = null;
     }
 
     /**
@@ -417,6 +487,7 @@ public class Polynomial {
     public void setCoefs(Coef[] coefs) {
         this.degree = coefs.length - 1;
         this.coefs = coefs;
+        this.powers = null;
 
         // Reduce the terms
         for (Coef coef : coefs) {
@@ -438,6 +509,37 @@ public class Polynomial {
             this.coefs[i] = new Coef(coefficients[i]);
         }
 
+        this.powers = null;
+    }
+
+    /**
+     * Set the degree at which multiplication switches from the schoolbook method to Karatsuba's method.
+     * Products where both factors have at least this degree are split in halves, and three half-size
+     * products replace four. This applies to plottable polynomials and DensePolynomials only: Coefs with
+     * letters are always multiplied the schoolbook way, since the sums of halves Karatsuba's method multiplies
+     * have more Terms than the halves, and cost more than the product they save. Karatsuba's method adds
+     * and subtracts in a different order, so numbers can differ from the schoolbook results by rounding.
+     *
+     * @param degree The new threshold. Must be at least 1.
+     * @since 1.3.0
+     */
+    public static void setKaratsubaThreshold(int degree) {
+        if (degree < 1) {
+            throw new IllegalArgumentException(String.format("Invalid Karatsuba threshold %d, must be at least 1.", degree));
+        }
+
+        karatsubaThreshold = degree;
+    }
+
+    /**
+     * Turn parallel multiplication on or off for {@link #times(Polynomial)}, and so for raising to powers.
+     * See {@link #times(Polynomial, boolean)}.
+     *
+     * @param parallel true to multiply in parallel
+     * @since 1.3.0
+     */
+    public static void setParallelMultiplication(boolean parallel) {
+        parallelMultiplication = parallel;
     }
 
     /**
@@ -448,6 +550,11 @@ public class Polynomial {
      * @since 1.0.0
      */
     public Polynomial plus(Polynomial polynomial) {
+        // Plottable polynomials are added as arrays of doubles.
+        DensePolynomial these = this.toDense();
+        DensePolynomial those = these == null ? null : polynomial.toDense();
+        if (those != null) return these.plus(those).toPolynomial();
+
         int biggerDegree = Math.max(this.getDegree(), polynomial.getDegree());
         int smallerDegree = Math.min(this.getDegree(), polynomial.getDegree());
 
@@ -483,6 +590,11 @@ public class Polynomial {
      * @since 1.0.0
      */
     public Polynomial minus(Polynomial polynomial) {
+        // Plottable polynomials are subtracted as arrays of doubles.
+        DensePolynomial these = this.toDense();
+        DensePolynomial those = these == null ? null : polynomial.toDense();
+        if (those != null) return these.minus(those).toPolynomial();
+
         return this.plus(polynomial.times(-1.0D));
     }
 
@@ -494,6 +606,10 @@ public class Polynomial {
      * @since 1.0.0
      */
     public Polynomial times(double scalar) {
+        // Plottable polynomials are multiplied as arrays of doubles.
+        DensePolynomial dense = this.toDense();
+        if (dense != null) return dense.times(scalar).toPolynomial();
+
         Coef[] coefs = new Coef[this.getDegree() + 1];
 
         for (int i = 0; i < this.getDegree() + 1; i++) {
@@ -528,39 +644,178 @@ public class Polynomial {
      * @since 1.0.0
      */
     public Polynomial times(Polynomial polynomial) {
-        Coef[] coefs = new Coef[this.getDegree() + polynomial.getDegree() + 1];
+        return this.times(polynomial, parallelMultiplication);
+    }
+
+    /**
+     * Multiply a polynomial by a polynomial, optionally computing the degrees of the product in parallel on the
+     * common ForkJoinPool. Each degree is a sum of Coef products, and the degrees are split between tasks by
+     * the number of Term products they take rather than by how many degrees there are, so the middle degrees,
+     * which have the most products, don't hold up the rest. The product is identical to the sequential one.
+     * Plottable polynomials are multiplied as arrays of doubles either way.
+     *
+     * @param polynomial to multiply
+     * @param parallel   true to compute the degrees in parallel
+     * @return the product
+     * @since 1.3.0
+     * @see OperationCache
+     */
+    public Polynomial times(Polynomial polynomial, boolean parallel) {
+        if (OperationCache.isEnabled()) {
+            OperationCache.Key key = OperationCache.Key.of(OperationCache.POLYNOMIAL_TIMES, roundingSettings(), this, polynomial);
+            return OperationCache.polynomial(key, () -> this.uncachedTimes(polynomial, parallel));
+        }
+
+        return this.uncachedTimes(polynomial, parallel);
+    }
+
+    /**
+     * Multiply a polynomial by a polynomial, without looking in the {@link OperationCache}.
+     *
+     * @param polynomial to multiply
+     * @param parallel   true to compute the degrees in parallel
+     * @return the product
+     */
+    private Polynomial uncachedTimes(Polynomial polynomial, boolean parallel) {
+        // Plottable polynomials are multiplied as arrays of doubles.
+        DensePolynomial these = this.toDense();
+        DensePolynomial those = these == null ? null : polynomial.toDense();
+        if (those != null) return these.times(those).toPolynomial();
+
+        ForkJoinPool pool = parallel ? ForkJoinPool.commonPool() : null;
+        return new Polynomial(schoolbook(this.coefs, 0, this.coefs.length, polynomial.coefs, 0, polynomial.coefs.length, pool));
+    }
+
+    /**
+     * Multiplies two ranges of Coefs the schoolbook way: every Coef by every Coef.
+     *
+     * @param a       Coefs of the first factor
+     * @param aOffset Index of the first Coef of the first factor
+     * @param aLength Number of Coefs in the first factor
+     * @param b       Coefs of the second factor
+     * @param bOffset Index of the first Coef of the second factor
+     * @param bLength Number of Coefs in the second factor
+     * @param pool    The pool to compute the degrees in, or null to compute them in this thread
+     * @return the Coefs of the product, aLength + bLength - 1 of them
+     */
+    private static Coef[] schoolbook(Coef[] a, int aOffset, int aLength, Coef[] b, int bOffset, int bLength,
+                                     ForkJoinPool pool) {
+        Coef[] coefs = zeros(aLength + bLength - 1);
+
+        if (pool == null || coefs.length == 1) {
+            for (int i = 0; i < coefs.length; i++) {
+                coefs[i] = schoolbookDegree(a, aOffset, aLength, b, bOffset, bLength, i);
+            }
+
+            return coefs;
+        }
+
+        // Multiplying a Coef reduces its Terms, so reduce them all now rather than in several threads at once.
+        // Twice, since the first reduce can leave Atoms that cancelled to a power of 0 for the second to remove.
+        for (int j = 0; j < aLength + bLength; j++) {
+            Coef coef = j < aLength ? a[aOffset + j] : b[bOffset + j - aLength];
+
+            for (Term term : coef.getTerms()) {
+                term.reduce();
+                term.reduce();
+            }
+        }
+
+        // The cost of each degree, estimated as the number of Term products it takes, summed up to each degree.
+        long[] costs = new long[coefs.length + 1];
 
         for (int i = 0; i < coefs.length; i++) {
+            long cost = 0;
+
+            for (int j = Math.max(0, i - bLength + 1); j <= Math.min(i, aLength - 1); j++) {
+                cost += (long) a[aOffset + j].getTerms().length * b[bOffset + i - j].getTerms().length + 1;
+            }
+
+            costs[i + 1] = costs[i] + cost;
+        }
+
+        // A few pieces per thread, so a thread that finishes early can take another.
+        long granularity = Math.max(1, costs[coefs.length] / (4 * pool.getParallelism()));
+        pool.invoke(new DegreeTask(a, aOffset, aLength, b, bOffset, bLength, coefs, costs, 0, coefs.length, granularity));
+
+        return coefs;
+    }
+
+    /**
+     * Computes one degree of a schoolbook product: the sum of the products of the Coefs whose degrees add up to it.
+     *
+     * @param a       Coefs of the first factor
+     * @param aOffset Index of the first Coef of the first factor
+     * @param aLength Number of Coefs in the first factor
+     * @param b       Coefs of the second factor
+     * @param bOffset Index of the first Coef of the second factor
+     * @param bLength Number of Coefs in the second factor
+     * @param degree  The degree of the product to compute
+     * @return the Coef of that degree
+     */
+    private static Coef schoolbookDegree(Coef[] a, int aOffset, int aLength, Coef[] b, int bOffset, int bLength, int degree) {
+        Coef coef = new Coef(0.0D);
+
+        for (int j = Math.max(0, degree - bLength + 1); j <= Math.min(degree, aLength - 1); j++) {
+            Coef product = a[aOffset + j].uncachedTimes(b[bOffset + degree - j]);
+            coef = coef.plus(product);
+        }
+
+        return coef;
+    }
+
+    /**
+     * Make an array of zero Coefs.
+     *
+     * @param length The length of the array
+     * @return the array of zero Coefs
+     */
+    private static Coef[] zeros(int length) {
+        Coef[] coefs = new Coef[length];
+
+        for (int i = 0; i < length; i++) {
             coefs[i] = new Coef(0.0D);
         }
 
+        return coefs;
+    }
+
+    /**
+     * Squares Coefs the schoolbook way, using a[j]*a[i-j] = a[i-j]*a[j] to do about half the Coef multiplications.
+     *
+     * @param a Coefs to square
+     * @return the Coefs of the square, 2 * a.length - 1 of them
+     */
+    private static Coef[] square(Coef[] a) {
+        Coef[] coefs = zeros(2 * a.length - 1);
+
         for (int i = 0; i < coefs.length; i++) {
-            for (int j = 0; j <= i; j++) {
-                if (j <= this.getDegree() && i - j <= polynomial.getDegree()) {
-                    Coef product = this.getCoefAt(j).times(polynomial.getCoefAt(i - j));
-                    coefs[i] = coefs[i].plus(product);
-                }
+            // The cross products below the middle, each standing for itself and its mirror image.
+            for (int j = Math.max(0, i - a.length + 1); 2 * j < i; j++) {
+                coefs[i] = coefs[i].plus(a[j].uncachedTimes(a[i - j]));
             }
+
+            coefs[i] = coefs[i].times(2.0D);
+
+            if (i % 2 == 0) coefs[i] = coefs[i].plus(a[i / 2].uncachedTimes(a[i / 2]));
         }
 
-        return new Polynomial(coefs);
+        return coefs;
     }
 
     /**
-     * Raise to a power.
+     * Raise to a power. The same as {@link #raiseTo(int)}, so large powers are raised by repeated squaring
+     * rather than one multiplication, and one call deeper, per power.
+     * <p>
+     * Terms that tie when sorted, such as b and B, come out in the order repeated multiplication gives them.
+     * Earlier versions swapped tied Terms every time a Coef was reduced, so their order could differ.
      *
      * @param power to raise by
      * @return Polynomial the result.
      * @since 1.0.0
      */
     public Polynomial to(int power) {
-        Polynomial polynomial = new Polynomial(1.0D);
-
-        if (power >= 1) {
-            polynomial.setCoefs(this.times(this.to(power - 1)).getCoefs());
-        }
-
-        return polynomial;
+        return this.raiseTo(power);
     }
 
     /* Raise to a power.
@@ -570,20 +825,173 @@ public class Polynomial {
      * @since 1.1.0
      */
     public Polynomial raiseTo(int power) {
-        Polynomial polynomial;
+        return this.raiseTo(power, false);
+    }
 
-        if (power <= 0) polynomial = new Polynomial(1.0);
-        else {
-            polynomial = new Polynomial(this.getCoefs());
+    /**
+     * Raise to a power by repeated squaring, which takes about log2(power) squarings instead of power - 1
+     * multiplications. Small powers are raised by repeated multiplication, which gives the same result as
+     * earlier versions.
+     * <p>
+     * With fastSquaring, each squaring computes every cross product once and doubles it, and plottable
+     * polynomials use Karatsuba's method and the FFT above their thresholds. That is about twice as fast for
+     * large powers, but the result is only the same up to rounding.
+     *
+     * @param power        to raise by
+     * @param fastSquaring true to use the dedicated squaring method
+     * @return Polynomial the result.
+     * @see #setKaratsubaThreshold(int)
+     * @see DensePolynomial#setFftThreshold(int)
+     * @since 1.3.0
+     * @see OperationCache
+     */
+    public Polynomial raiseTo(int power, boolean fastSquaring) {
+        if (OperationCache.isEnabled()) {
+            long[] parameters = Arrays.copyOf(roundingSettings(), 4);
+            parameters[2] = power;
+            parameters[3] = fastSquaring ? 1 : 0;
+
+            OperationCache.Key key = OperationCache.Key.of(OperationCache.POLYNOMIAL_RAISE_TO, parameters, this);
+            return OperationCache.polynomial(key, () -> this.uncachedRaiseTo(power, fastSquaring));
+        }
 
-            for (int i = 1; i < power; i++) {
-                polynomial = this.times(polynomial);
+        return this.uncachedRaiseTo(power, fastSquaring);
+    }
+
+    /**
+     * Raise to a power, without looking in the {@link OperationCache}.
+     *
+     * @param power        to raise by
+     * @param fastSquaring true to use the dedicated squaring method
+     * @return Polynomial the result.
+     */
+    private Polynomial uncachedRaiseTo(int power, boolean fastSquaring) {
+        // Plottable polynomials are raised as arrays of doubles.
+        DensePolynomial dense = this.toDense();
+        if (dense != null) return dense.raiseTo(power, fastSquaring).toPolynomial();
+
+        if (power <= 0) return new Polynomial(1.0);
+
+        if (power < MIN_SQUARING_POWER) {
+            Polynomial polynomial = null;
+
+            for (int i = 1; i <= power; i++) {
+                polynomial = this.power(i, polynomial);
             }
+
+            return polynomial.copy();
+        }
+
+        Polynomial polynomial = new Polynomial(this.getCoefs());
+
+        // Left to right through the bits of the power, so the odd steps multiply by this short polynomial.
+        for (int bit = Integer.highestOneBit(power) >> 1; bit != 0; bit >>= 1) {
+            if (fastSquaring) polynomial = new Polynomial(square(polynomial.coefs));
+            else polynomial = polynomial.times(polynomial);
+
+            if ((power & bit) != 0) polynomial = this.times(polynomial);
         }
 
         return polynomial;
     }
 
+    /**
+     * Get this Polynomial to a power by multiplying the power before by this, which matches raising to powers
+     * below {@link #MIN_SQUARING_POWER} in earlier versions bit for bit. The lowest powers are kept, as many as
+     * fit in {@link #MAX_CACHED_POWERS} and {@link #MAX_CACHED_POWER_TERMS}, and taken from there if asked for
+     * again. The result may be one of those, so it must not be changed.
+     *
+     * @param power    The power, at least 1
+     * @param previous This Polynomial to power - 1, as returned before, or null if power is 1
+     * @return this Polynomial to the power
+     */
+    private Polynomial power(int power, Polynomial previous) {
+        // The Coefs can be changed in place, so the powers are only used if they were made from the same ones.
+        OperationCache.Key key = OperationCache.Key.of(OperationCache.POLYNOMIAL_POWERS, roundingSettings(), this);
+        SoftReference<Powers> reference = this.powers;
+        Powers known = reference == null ? null : reference.get();
+        Polynomial[] powers = known != null && known.key.equals(key) ? known.powers : null;
+
+        if (powers != null && power <= powers.length) return powers[power - 1];
+
+        Polynomial raised = power == 1 ? new Polynomial(this.getCoefs()) : this.times(previous);
+
+        // Keep it if it's the next power and there's room, in a new array so readers never see a partial one.
+        int count = powers == null ? 0 : powers.length;
+
+        if (power == count + 1 && power <= MAX_CACHED_POWERS
+                && countTerms(powers) + countTerms(raised) <= MAX_CACHED_POWER_TERMS) {
+            powers = powers == null ? new Polynomial[1] : Arrays.copyOf(powers, power);
+            powers[power - 1] = raised;
+            this.powers = new SoftReference<>(new Powers(key, powers));
+        }
+
+        return raised;
+    }
+
+    /**
+     * Count the Terms of Polynomials.
+     *
+     * @param polynomials The Polynomials, or null for none
+     * @return the number of Terms in all their Coefs
+     */
+    private static int countTerms(Polynomial... polynomials) {
+        int terms = 0;
+
+        if (polynomials == null) return terms;
+
+        for (Polynomial polynomial : polynomials) {
+            for (Coef coef : polynomial.coefs) {
+                terms += coef.getTerms().length;
+            }
+        }
+
+        return terms;
+    }
+
+    /**
+     * Copy this Polynomial with new Coefs, so that changing one doesn't change the other.
+     *
+     * @return the copy
+     */
+    Polynomial copy() {
+        Polynomial polynomial = new Polynomial();
+        polynomial.degree = this.degree;
+        polynomial.coefs = new Coef[this.coefs.length];
+
+        for (int i = 0; i < this.coefs.length; i++) {
+            polynomial.coefs[i] = this.coefs[i].copy();
+        }
+
+        return polynomial;
+    }
+
+    /**
+     * Reduce the Coefs of this Polynomial and make a {@link FrozenPolynomial} with the same Coefs, kept in flat
+     * arrays that are faster to go over but can't be changed. Turn it back into a Polynomial with
+     * {@link FrozenPolynomial#thaw()}.
+     *
+     * @return the FrozenPolynomial
+     * @throws AssertionError If a Term has null atoms.
+     * @since 1.3.0
+     */
+    public FrozenPolynomial freeze() throws AssertionError {
+        for (Coef coef : this.coefs) {
+            coef.reduce();
+        }
+
+        return new FrozenPolynomial(this.coefs);
+    }
+
+    /**
+     * The settings that can change the rounding of products, for the keys of the {@link OperationCache}.
+     *
+     * @return the Karatsuba and FFT thresholds
+     */
+    private static long[] roundingSettings() {
+        return new long[]{karatsubaThreshold, DensePolynomial.getFftThreshold()};
+    }
+
     /**
      * Adds the Polynomial p(x) = mx + b to a Polynomial
      *
@@ -605,17 +1013,47 @@ public class Polynomial {
     /**
      * Composes two GenPolynomials.
      * Example: if this = p(x) and poly = q(x), this.of(poly) returns p[q(x)]
+     * <p>
+     * This takes one multiplication per degree of p: each power of q is made from the one before.
+     * Plottable polynomials are composed with Horner's scheme, see {@link DensePolynomial#of(DensePolynomial)}.
      *
      * @param polynomial The inner polynomial
      * @return The new polynomial which is the composition
      * @since 1.0.0
+     * @see OperationCache
      */
     public Polynomial of(Polynomial polynomial) {
+        if (OperationCache.isEnabled()) {
+            OperationCache.Key key = OperationCache.Key.of(OperationCache.POLYNOMIAL_OF, roundingSettings(), this, polynomial);
+            return OperationCache.polynomial(key, () -> this.uncachedOf(polynomial));
+        }
+
+        return this.uncachedOf(polynomial);
+    }
+
+    /**
+     * Composes two GenPolynomials, without looking in the {@link OperationCache}.
+     *
+     * @param polynomial The inner polynomial
+     * @return The new polynomial which is the composition
+     */
+    private Polynomial uncachedOf(Polynomial polynomial) {
+        // Plottable polynomials are composed as arrays of doubles.
+        DensePolynomial these = this.toDense();
+        DensePolynomial those = these == null ? null : polynomial.toDense();
+        if (those != null) return these.of(those).toPolynomial();
+
+        // Horner's scheme would multiply by q polynomials whose Coefs hold every power of q at once,
+        // which is slower than building up the powers of q, whose Coefs have fewer Terms.
         Polynomial result = new Polynomial(0.0D);
+        Polynomial raised = new Polynomial(1.0D);
 
         for (int i = 0; i <= this.getDegree(); ++i) {
+            // polynomial^i, one multiplication from the last power, as in raiseTo below its squaring power.
+            // The inner polynomial keeps its lowest powers, so composing with it again starts from those.
+            if (i >= 1) raised = polynomial.power(i, i == 1 ? null : raised);
+
             Coef currentCoef = this.getCoefAt(i);
-            Polynomial raised = polynomial.raiseTo(i);
             Polynomial product = raised.times(currentCoef);
 
             result.setCoefs(result.plus(product).getCoefs());
@@ -637,6 +1075,10 @@ public class Polynomial {
      * @since 1.1.0
      */
     public Coef evaluateToCoef(double value) {
+        // Plottable polynomials take the numeric Horner path.
+        double[] coefficients = this.getCoefficientSnapshot();
+        if (coefficients != null) return new Coef(horner(coefficients, value));
+
         Polynomial polynomial = new Polynomial(value);
         Coef coef = new Coef(0.0D);
 
@@ -651,12 +1093,20 @@ public class Polynomial {
      * Think of this method as plugging in a numeric value into a polynomial function.
      * For example, if p(x) = x2 + 5, and x = 2, then p.evaluate(2) would essentially
      * evaluate p(2) = 22 + 5 = 9.
+     * <p>
+     * Plottable polynomials are evaluated with Horner's scheme. Each call still reads the Coefs into a new
+     * array, so loops over many values should use {@link #compile()} or the bulk eval overloads, which read
+     * them once.
      *
      * @param x The value to plug into the polynomial
      * @return double the result
      * @since 1.2.0
      */
     public double eval(double x) {
+        // Plottable polynomials take the numeric Horner path.
+        double[] coefficients = this.getCoefficientSnapshot();
+        if (coefficients != null) return horner(coefficients, x);
+
         Polynomial polynomial = new Polynomial(x);
         Coef coef = new Coef(0.0D);
 
@@ -667,6 +1117,118 @@ public class Polynomial {
         return coef.getConstantAt0Term();
     }
 
+    /**
+     * Evaluate the polynomial at every value in xs and write the results to out, so that
+     * out[i] = p(xs[i]). The results are the same as calling {@link #eval(double)} for each value.
+     *
+     * @param xs  The values to plug into the polynomial
+     * @param out Where the results go. Must be at least as long as xs.
+     * @since 1.3.0
+     */
+    public void eval(double[] xs, double[] out) {
+        this.eval(xs, 0, out, 0, xs.length);
+    }
+
+    /**
+     * Evaluate the polynomial at length values of xs, starting at xsOffset, and write the results to out,
+     * starting at outOffset. The results are the same as calling {@link #eval(double)} for each value.
+     *
+     * @param xs        The values to plug into the polynomial
+     * @param xsOffset  Index of the first value in xs
+     * @param out       Where the results go
+     * @param outOffset Index in out for the first result
+     * @param length    How many values to evaluate
+     * @throws IndexOutOfBoundsException If either range is outside its array.
+     * @since 1.3.0
+     */
+    public void eval(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        Objects.checkFromIndexSize(xsOffset, length, xs.length);
+        Objects.checkFromIndexSize(outOffset, length, out.length);
+
+        double[] coefficients = this.getCoefficientSnapshot();
+
+        if (coefficients != null) {
+            horner(coefficients, xs, xsOffset, out, outOffset, length);
+        } else {
+            // Not plottable, so go one value at a time.
+            for (int i = 0; i < length; i++) {
+                out[outOffset + i] = this.eval(xs[xsOffset + i]);
+            }
+        }
+    }
+
+    /**
+     * Evaluate the polynomial at every remaining value in xs and put the results in out. Like the bulk
+     * get and put methods of DoubleBuffer, the position of both buffers moves past the values used.
+     *
+     * @param xs  The values to plug into the polynomial
+     * @param out Where the results go. Must have at least as many values remaining as xs.
+     * @throws java.nio.BufferOverflowException If out has less room than xs has values.
+     * @since 1.3.0
+     */
+    public void eval(DoubleBuffer xs, DoubleBuffer out) {
+        int length = xs.remaining();
+        if (out.remaining() < length) throw new BufferOverflowException();
+
+        if (xs.hasArray() && out.hasArray()) {
+            // Work straight on the backing arrays.
+            this.eval(xs.array(), xs.arrayOffset() + xs.position(),
+                    out.array(), out.arrayOffset() + out.position(), length);
+            xs.position(xs.position() + length);
+            out.position(out.position() + length);
+        } else {
+            // Direct or read-only buffers are copied through a small block at a time.
+            double[] xBlock = new double[Math.min(length, BUFFER_BLOCK_SIZE)];
+            double[] outBlock = new double[xBlock.length];
+
+            while (xs.hasRemaining()) {
+                int blockLength = Math.min(xs.remaining(), xBlock.length);
+                xs.get(xBlock, 0, blockLength);
+                this.eval(xBlock, 0, outBlock, 0, blockLength);
+                out.put(outBlock, 0, blockLength);
+            }
+        }
+    }
+
+    /**
+     * Like {@link #eval(double[], double[])}, but splits the values across the common ForkJoinPool.
+     * Worth it for large arrays, e.g. hundreds of thousands of values or more.
+     *
+     * @param xs  The values to plug into the polynomial
+     * @param out Where the results go. Must be at least as long as xs.
+     * @since 1.3.0
+     */
+    public void evalParallel(double[] xs, double[] out) {
+        this.evalParallel(xs, out, DEFAULT_PARALLEL_GRANULARITY, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Like {@link #eval(double[], double[])}, but splits the values across a ForkJoinPool. The array is cut
+     * in halves until each piece has at most granularity values, and each piece is evaluated straight into
+     * out, so no per-piece arrays are created. The results are identical to the sequential version.
+     * Polynomials that aren't plottable are evaluated sequentially.
+     *
+     * @param xs          The values to plug into the polynomial
+     * @param out         Where the results go. Must be at least as long as xs.
+     * @param granularity The most values one task evaluates. Must be at least 1.
+     * @param pool        The pool to run the tasks in
+     * @since 1.3.0
+     */
+    public void evalParallel(double[] xs, double[] out, int granularity, ForkJoinPool pool) {
+        if (granularity < 1) {
+            throw new IllegalArgumentException(String.format("Invalid granularity %d, must be at least 1.", granularity));
+        }
+
+        Objects.checkFromIndexSize(0, xs.length, out.length);
+        double[] coefficients = this.getCoefficientSnapshot();
+
+        if (coefficients == null || xs.length <= granularity) {
+            this.eval(xs, out);
+        } else {
+            pool.invoke(new EvalTask(coefficients, xs, out, 0, xs.length, granularity));
+        }
+    }
+
     /**
      * Think of this method as plugging in a numeric value into a polynomial function.
      * For example, if p(x) = x2 + 5, and x = 2, then p.evaluate(2) would essentially
@@ -679,6 +1241,10 @@ public class Polynomial {
      */
     @Deprecated
     public double evaluateWith(double x) {
+        // Plottable polynomials take the numeric Horner path.
+        double[] coefficients = this.getCoefficientSnapshot();
+        if (coefficients != null) return horner(coefficients, x);
+
         Polynomial polynomial = new Polynomial(x);
         Coef coef = new Coef(0.0D);
 
@@ -689,17 +1255,193 @@ public class Polynomial {
         return coef.getConstantAt0Term();
     }
 
+    /**
+     * Evaluates the numerical coefficients with Horner's scheme, i.e. (...(c_n*x + c_n-1)*x + ...)*x + c_0.
+     * Uses one multiplication and one addition per degree and allocates nothing.
+     *
+     * @param coefficients The numerical coefficients, index 0 being the constant
+     * @param x            The value to plug in
+     * @return the value of the polynomial at x
+     */
+    static double horner(double[] coefficients, double x) {
+        double result = coefficients[coefficients.length - 1];
+
+        for (int i = coefficients.length - 2; i >= 0; i--) {
+            result = result * x + coefficients[i];
+        }
+
+        return result;
+    }
+
+    /**
+     * Evaluates the numerical coefficients at many values with Horner's scheme. Four values are
+     * evaluated per pass over the coefficients, so the four multiply-add chains are independent and
+     * the CPU can run them side by side. Each value gets exactly the same operations as
+     * {@link #horner(double[], double)}, so the results match it bit for bit.
+     *
+     * @param coefficients The numerical coefficients, index 0 being the constant
+     * @param xs           The values to plug in
+     * @param xsOffset     Index of the first value in xs
+     * @param out          Where the results go
+     * @param outOffset    Index in out for the first result
+     * @param length       How many values to evaluate
+     */
+    private static void horner(double[] coefficients, double[] xs, int xsOffset,
+                               double[] out, int outOffset, int length) {
+        int top = coefficients.length - 1;
+        int i = 0;
+
+        for (; i + 3 < length; i += 4) {
+            double x0 = xs[xsOffset + i];
+            double x1 = xs[xsOffset + i + 1];
+            double x2 = xs[xsOffset + i + 2];
+            double x3 = xs[xsOffset + i + 3];
+            double r0 = coefficients[top];
+            double r1 = r0;
+            double r2 = r0;
+            double r3 = r0;
+
+            for (int k = top - 1; k >= 0; k--) {
+                double c = coefficients[k];
+                r0 = r0 * x0 + c;
+                r1 = r1 * x1 + c;
+                r2 = r2 * x2 + c;
+                r3 = r3 * x3 + c;
+            }
+
+            out[outOffset + i] = r0;
+            out[outOffset + i + 1] = r1;
+            out[outOffset + i + 2] = r2;
+            out[outOffset + i + 3] = r3;
+        }
+
+        // The last few values
+        for (; i < length; i++) {
+            out[outOffset + i] = horner(coefficients, xs[xsOffset + i]);
+        }
+    }
+
+    /**
+     * Returns this polynomial as a function of x, so it can be used with primitive streams.
+     * For example: DoubleStream.of(xs).map(polynomial.asFunction()).
+     * The function evaluates with {@link #eval(double)}, so it follows later changes to the coefficients.
+     *
+     * @return a function that evaluates this polynomial
+     * @since 1.3.0
+     */
+    public DoubleUnaryOperator asFunction() {
+        return this::eval;
+    }
+
+    /**
+     * Compiles this plottable polynomial into a function specialized for its coefficients. Up to degree 7
+     * the Horner steps are unrolled, with each coefficient held in its own final field rather than an array,
+     * which gives the JIT a small straight-line method it can inline at the call site. Higher degrees use
+     * a private copy of the coefficients. The function gives exactly the same results as
+     * {@link #eval(double)}, and doesn't change if this polynomial is changed later.
+     * <p>
+     * Compiled functions are cached by coefficient values, so compiling an identical polynomial again
+     * returns the same function.
+     *
+     * @return a function that evaluates this polynomial
+     * @throws AssertionError If the polynomial is not plottable.
+     * @since 1.3.0
+     */
+    public DoubleUnaryOperator compile() throws AssertionError {
+        double[] coefficients = this.getCoefficientSnapshot();
+
+        if (coefficients == null) {
+            String msg = String.format("The polynomial %s is not plottable and cannot be compiled.", this.toString());
+            throw (new AssertionError(msg));
+        }
+
+        // The snapshot is a new array that nothing else holds, so the key can keep it.
+        CoefficientsKey key = new CoefficientsKey(coefficients);
+
+        synchronized (COMPILED_EVALUATORS) {
+            return COMPILED_EVALUATORS.computeIfAbsent(key, k -> unroll(k.coefficients));
+        }
+    }
+
+    /**
+     * Makes a function that evaluates the coefficients with Horner's scheme, unrolled for low degrees.
+     *
+     * @param coefficients The numerical coefficients, index 0 being the constant
+     * @return the evaluating function
+     */
+    private static DoubleUnaryOperator unroll(double[] coefficients) {
+        final double c0 = coefficients[0];
+        final double c1 = coefficients.length > 1 ? coefficients[1] : 0;
+        final double c2 = coefficients.length > 2 ? coefficients[2] : 0;
+        final double c3 = coefficients.length > 3 ? coefficients[3] : 0;
+        final double c4 = coefficients.length > 4 ? coefficients[4] : 0;
+        final double c5 = coefficients.length > 5 ? coefficients[5] : 0;
+        final double c6 = coefficients.length > 6 ? coefficients[6] : 0;
+        final double c7 = coefficients.length > 7 ? coefficients[7] : 0;
+
+        switch (coefficients.length) {
+            case 1:
+                return x -> c0;
+            case 2:
+                return x -> c1 * x + c0;
+            case 3:
+                return x -> (c2 * x + c1) * x + c0;
+            case 4:
+                return x -> ((c3 * x + c2) * x + c1) * x + c0;
+            case 5:
+                return x -> (((c4 * x + c3) * x + c2) * x + c1) * x + c0;
+            case 6:
+                return x -> ((((c5 * x + c4) * x + c3) * x + c2) * x + c1) * x + c0;
+            case 7:
+                return x -> (((((c6 * x + c5) * x + c4) * x + c3) * x + c2) * x + c1) * x + c0;
+            case 8:
+                return x -> ((((((c7 * x + c6) * x + c5) * x + c4) * x + c3) * x + c2) * x + c1) * x + c0;
+            default:
+                final double[] copy = coefficients.clone();
+                return x -> horner(copy, x);
+        }
+    }
+
+    /**
+     * Get the numerical coefficients as a new double array, read from the Coefs as they are now, so Coefs
+     * changed in place are seen. Zero Coefs count as the number 0.
+     *
+     * @return the numerical coefficients, or null if any Coef is not a number
+     */
+    double[] getCoefficientSnapshot() {
+        double[] snapshot = new double[this.coefs.length];
+
+        for (int i = 0; i < this.coefs.length; i++) {
+            if (this.coefs[i].isConstantCoef()) {
+                snapshot[i] = this.coefs[i].getTerms()[0].getNumericalCoefficient();
+            } else if (!this.coefs[i].isZero()) {
+                // Has atoms, so it can't be evaluated to a number.
+                return null;
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Get the polynomial as a DensePolynomial if every Coef is a number, checking the Coefs as they are now.
+     *
+     * @return the DensePolynomial, or null if a Coef is not a number
+     */
+    private DensePolynomial toDense() {
+        double[] coefficients = this.getCoefficientSnapshot();
+        return coefficients == null ? null : DensePolynomial.wrap(coefficients);
+    }
+
     /**
      * Determines if all the coefficients are constant, meaning the polynomial can be represented in a graph.
+     * Zero coefficients count as constant.
      *
      * @return true if plottable
      * @since 1.0.0
      */
     public boolean isPlottable() {
-        for (Coef coef : this.coefs)
-            if (!coef.isConstantCoef()) return false;
-
-        return true;
+        return this.getCoefficientSnapshot() != null;
     }
 
     /**
@@ -763,4 +1505,130 @@ public class Polynomial {
         // Clean up the last +
         return string.toString().replaceAll("\\+\\Z", ""); // strip last +;
     }
+
+    /**
+     * Computes a range of degrees of a schoolbook product, splitting the range where half the estimated cost is
+     * on each side until it is small enough.
+     */
+    private static final class DegreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Coef[] a;
+        private final int aOffset;
+        private final int aLength;
+        private final Coef[] b;
+        private final int bOffset;
+        private final int bLength;
+        private final Coef[] coefs;
+        private final long[] costs;
+        private final int from;
+        private final int to;
+        private final long granularity;
+
+        DegreeTask(Coef[] a, int aOffset, int aLength, Coef[] b, int bOffset, int bLength, Coef[] coefs,
+                   long[] costs, int from, int to, long granularity) {
+            this.a = a;
+            this.aOffset = aOffset;
+            this.aLength = aLength;
+            this.b = b;
+            this.bOffset = bOffset;
+            this.bLength = bLength;
+            this.coefs = coefs;
+            this.costs = costs;
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1 || this.costs[this.to] - this.costs[this.from] <= this.granularity) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.coefs[i] = schoolbookDegree(this.a, this.aOffset, this.aLength, this.b, this.bOffset, this.bLength, i);
+                }
+            } else {
+                // The first degree where the cost so far reaches half, leaving at least one degree on each side.
+                long half = (this.costs[this.from] + this.costs[this.to]) / 2;
+                int middle = Arrays.binarySearch(this.costs, this.from + 1, this.to, half);
+                if (middle < 0) middle = -middle - 1;
+                middle = Math.min(Math.max(middle, this.from + 1), this.to - 1);
+
+                invokeAll(new DegreeTask(this.a, this.aOffset, this.aLength, this.b, this.bOffset, this.bLength,
+                                this.coefs, this.costs, this.from, middle, this.granularity),
+                        new DegreeTask(this.a, this.aOffset, this.aLength, this.b, this.bOffset, this.bLength,
+                                this.coefs, this.costs, middle, this.to, this.granularity));
+            }
+        }
+    }
+
+    /**
+     * The lowest powers of a Polynomial, and the key of the Coefs and settings they were made from.
+     */
+    private static final class Powers {
+        private final OperationCache.Key key;
+        private final Polynomial[] powers;
+
+        Powers(OperationCache.Key key, Polynomial[] powers) {
+            this.key = key;
+            this.powers = powers;
+        }
+    }
+
+    /**
+     * Evaluates a range of values with Horner's scheme, halving the range until it is small enough.
+     */
+    private static final class EvalTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] coefficients;
+        private final double[] xs;
+        private final double[] out;
+        private final int from;
+        private final int to;
+        private final int granularity;
+
+        EvalTask(double[] coefficients, double[] xs, double[] out, int from, int to, int granularity) {
+            this.coefficients = coefficients;
+            this.xs = xs;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.granularity) {
+                horner(this.coefficients, this.xs, this.from, this.out, this.from, this.to - this.from);
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new EvalTask(this.coefficients, this.xs, this.out, this.from, middle, this.granularity),
+                        new EvalTask(this.coefficients, this.xs, this.out, middle, this.to, this.granularity));
+            }
+        }
+    }
+
+    /**
+     * Map key that compares numerical coefficients by value.
+     */
+    private static final class CoefficientsKey {
+        private final double[] coefficients;
+        private final int hash;
+
+        CoefficientsKey(double[] coefficients) {
+            this.coefficients = coefficients;
+            this.hash = Arrays.hashCode(coefficients);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof CoefficientsKey
+                    && Arrays.equals(this.coefficients, ((CoefficientsKey) object).coefficients);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
 }
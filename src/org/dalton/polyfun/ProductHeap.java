@@ -0,0 +1,241 @@
+package org.dalton.polyfun;
+
+import java.util.Arrays;
+
+/**
+ * Multiplies the Terms of two Coefs with Johnson's heap method. The Terms of both factors are put in
+ * {@link Monomial#compareTo(Monomial) Monomial order}, and a heap holds one product for each Term of the smaller
+ * factor: its product with the next Term of the larger factor. Taking products off the heap gives every product
+ * in Monomial order, so like products come out together and are combined as they come, and the heap never holds
+ * more than min(n, m) products instead of all n * m.
+ * <p>
+ * The result is the same as combining the products with a {@link TermAccumulator}: like products are taken off
+ * the heap in the order Coef.times(Coef) has always made them, this Term by this Term, so their numerical
+ * coefficients are added in the same order, and the Terms are sorted with {@link Term#compareTo(Term)} at the end.
+ */
+final class ProductHeap {
+    // For each product on the heap: its row in the smaller factor, its column in the larger, and its Monomial.
+    private final int[] rows;
+    private final int[] columns;
+    private final Monomial[] monomials;
+    private int size;
+
+    // Per factor: the index of each Term in Monomial order, and the Monomials of the Terms.
+    private final Term[] rowTerms, columnTerms;
+    private final int[] rowOrder, columnOrder;
+    private final Monomial[] rowMonomials, columnMonomials;
+
+    // True if the rows are the Terms of the first factor, i.e. this in this.times(that).
+    private final boolean rowsFirst;
+
+    private ProductHeap(Term[] these, Term[] those) {
+        this.rowsFirst = these.length <= those.length;
+        this.rowTerms = this.rowsFirst ? these : those;
+        this.columnTerms = this.rowsFirst ? those : these;
+
+        this.rowMonomials = monomials(this.rowTerms);
+        this.columnMonomials = monomials(this.columnTerms);
+        this.rowOrder = order(this.rowMonomials);
+        this.columnOrder = order(this.columnMonomials);
+
+        this.rows = new int[this.rowTerms.length];
+        this.columns = new int[this.rowTerms.length];
+        this.monomials = new Monomial[this.rowTerms.length];
+    }
+
+    /**
+     * Multiply every Term by every Term, combining like products.
+     *
+     * @param these The reduced Terms of the first factor
+     * @param those The reduced Terms of the second factor
+     * @return the sorted Terms of the product, leaving out like products that cancelled out, or null if a Term
+     * has null atoms or the Terms tie when sorted, so the order they were made in matters
+     */
+    static Term[] multiply(Term[] these, Term[] those) {
+        for (Term term : these) {
+            if (term.hasNullAtoms()) return null;
+        }
+
+        for (Term term : those) {
+            if (term.hasNullAtoms()) return null;
+        }
+
+        if (these.length == 0 || those.length == 0) return new Term[0];
+
+        Term[] product = new ProductHeap(these, those).multiply();
+        Arrays.sort(product);
+
+        // A tie means sorting depends on the order the Terms were made in, which only a TermAccumulator keeps.
+        return Term.hasSortTies(product) ? null : product;
+    }
+
+    /**
+     * Take every product off the heap, combining like products.
+     *
+     * @return the product Terms in Monomial order
+     */
+    private Term[] multiply() {
+        for (int row = 0; row < this.rowTerms.length; row++) {
+            this.push(row, 0);
+        }
+
+        Term[] product = new Term[this.rowTerms.length + this.columnTerms.length];
+        int length = 0;
+
+        Monomial monomial = null;
+        double numericalCoefficient = 0.0D;
+        boolean started = false;
+
+        while (this.size > 0) {
+            int row = this.rows[0];
+            int column = this.columns[0];
+
+            // A product unlike the one before finishes the Term before.
+            if (monomial == null || !monomial.equals(this.monomials[0])) {
+                if (started && numericalCoefficient != 0.0D) {
+                    if (length == product.length) product = Arrays.copyOf(product, length * 2);
+                    product[length++] = new Term(numericalCoefficient, monomial);
+                }
+
+                monomial = this.monomials[0];
+                started = false;
+            }
+
+            // New coefficient first, and zero products skipped, as TermAccumulator adds them.
+            double next = this.coefficient(row, column);
+
+            if (next != 0.0D) {
+                numericalCoefficient = started ? next + numericalCoefficient : next;
+                started = true;
+            }
+
+            // Replace the product with the next one in its row, or take it off the heap if the row is done.
+            if (column + 1 < this.columnTerms.length) {
+                this.set(0, row, column + 1);
+            } else {
+                this.size--;
+                this.set(0, this.rows[this.size], this.columns[this.size], this.monomials[this.size]);
+            }
+
+            this.siftDown(0);
+        }
+
+        if (started && numericalCoefficient != 0.0D) {
+            if (length == product.length) product = Arrays.copyOf(product, length + 1);
+            product[length++] = new Term(numericalCoefficient, monomial);
+        }
+
+        return Term.intern(Arrays.copyOf(product, length));
+    }
+
+    /**
+     * Put a product on the heap.
+     */
+    private void push(int row, int column) {
+        this.set(this.size, row, column);
+        this.siftUp(this.size++);
+    }
+
+    /**
+     * Set a heap entry to the product of a row and a column.
+     */
+    private void set(int index, int row, int column) {
+        Monomial monomial = this.rowMonomials[this.rowOrder[row]].times(this.columnMonomials[this.columnOrder[column]]);
+        this.set(index, row, column, monomial.withoutZeroPowers());
+    }
+
+    private void set(int index, int row, int column, Monomial monomial) {
+        this.rows[index] = row;
+        this.columns[index] = column;
+        this.monomials[index] = monomial;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!this.isLess(index, parent)) return;
+
+            this.swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int least = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+
+            if (left < this.size && this.isLess(left, least)) least = left;
+            if (right < this.size && this.isLess(right, least)) least = right;
+            if (least == index) return;
+
+            this.swap(index, least);
+            index = least;
+        }
+    }
+
+    /**
+     * Order products by Monomial, then like products in the order Coef.times(Coef) makes them: by the index of
+     * the first factor's Term, then by the index of the second factor's Term.
+     */
+    private boolean isLess(int a, int b) {
+        int comparison = this.monomials[a].compareTo(this.monomials[b]);
+        if (comparison != 0) return comparison < 0;
+
+        int rowA = this.rowOrder[this.rows[a]], rowB = this.rowOrder[this.rows[b]];
+        int columnA = this.columnOrder[this.columns[a]], columnB = this.columnOrder[this.columns[b]];
+
+        if (this.rowsFirst) return rowA != rowB ? rowA < rowB : columnA < columnB;
+        return columnA != columnB ? columnA < columnB : rowA < rowB;
+    }
+
+    private void swap(int a, int b) {
+        int row = this.rows[a], column = this.columns[a];
+        Monomial monomial = this.monomials[a];
+        this.set(a, this.rows[b], this.columns[b], this.monomials[b]);
+        this.set(b, row, column, monomial);
+    }
+
+    /**
+     * The numerical coefficient of a product, this Term's times that Term's.
+     */
+    private double coefficient(int row, int column) {
+        Term rowTerm = this.rowTerms[this.rowOrder[row]];
+        Term columnTerm = this.columnTerms[this.columnOrder[column]];
+
+        if (this.rowsFirst) return rowTerm.getNumericalCoefficient() * columnTerm.getNumericalCoefficient();
+        return columnTerm.getNumericalCoefficient() * rowTerm.getNumericalCoefficient();
+    }
+
+    private static Monomial[] monomials(Term[] terms) {
+        Monomial[] monomials = new Monomial[terms.length];
+
+        for (int i = 0; i < terms.length; i++) {
+            monomials[i] = terms[i].getMonomial();
+        }
+
+        return monomials;
+    }
+
+    /**
+     * The indexes of Monomials in Monomial order. Equal Monomials keep their order.
+     */
+    private static int[] order(Monomial[] monomials) {
+        Integer[] order = new Integer[monomials.length];
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, (a, b) -> monomials[a].compareTo(monomials[b]));
+
+        int[] indexes = new int[order.length];
+
+        for (int i = 0; i < order.length; i++) {
+            indexes[i] = order[i];
+        }
+
+        return indexes;
+    }
+}
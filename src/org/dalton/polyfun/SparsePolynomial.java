@@ -0,0 +1,486 @@
+package org.dalton.polyfun;
+
+import java.util.Arrays;
+
+/**
+ * A SparsePolynomial is a polynomial in X whose coefficients are all numbers, storing only the terms that
+ * are not zero: an array of exponents in increasing order, and an array of their coefficients.
+ * <p>
+ * Example: mathematical object
+ * <p>
+ * p(x) = x^100000 + 3x^2 + 1
+ * <p>
+ * Java object degree = 100000
+ * exponents = {0, 2, 100000}
+ * coefficients = {1, 3, 1}
+ * <p>
+ * A {@link Polynomial} or {@link DensePolynomial} of degree n stores n + 1 coefficients, even when nearly all of
+ * them are zero, so x^n-style polynomials cost memory and time in proportion to their degree. A SparsePolynomial
+ * costs memory in proportion to its number of terms. When the factors of a product have most of their terms
+ * filled in, the product is worked out as dense arrays and then made sparse again, since dense multiplication
+ * is faster for those. SparsePolynomials can't be changed once made; every operation returns a new one.
+ *
+ * @since 1.3.0
+ */
+public final class SparsePolynomial {
+    // Products where both factors have at least this fraction of their coefficients filled in are multiplied dense.
+    private static final double DENSE_FILL_RATIO = 0.25;
+
+    // Only set while making the SparsePolynomial, and never changed after.
+    private int[] exponents;
+    private double[] coefficients;
+
+    /**
+     * Construct a SparsePolynomial from terms in any order. Terms with the same exponent are added together,
+     * and terms that are zero are left out. The arrays are not changed or kept.
+     *
+     * @param exponents    The exponent of X of each term
+     * @param coefficients The numerical coefficient of each term
+     * @throws IllegalArgumentException If the arrays have different lengths or an exponent is negative.
+     * @since 1.3.0
+     */
+    public SparsePolynomial(int[] exponents, double[] coefficients) throws IllegalArgumentException {
+        if (exponents.length != coefficients.length) {
+            String msg = String.format("There are %d exponents but %d coefficients.", exponents.length, coefficients.length);
+            throw new IllegalArgumentException(msg);
+        }
+
+        // Sort the terms by exponent, carrying the coefficients along.
+        long[] order = new long[exponents.length];
+
+        for (int i = 0; i < exponents.length; i++) {
+            if (exponents[i] < 0) {
+                throw new IllegalArgumentException(String.format("Invalid exponent %d, must be at least 0.", exponents[i]));
+            }
+
+            order[i] = ((long) exponents[i] << 32) | i;
+        }
+
+        Arrays.sort(order);
+
+        int[] sortedExponents = new int[exponents.length];
+        double[] sortedCoefficients = new double[exponents.length];
+        int count = 0;
+
+        for (long key : order) {
+            int exponent = (int) (key >>> 32);
+            double coefficient = coefficients[(int) key];
+
+            if (count > 0 && sortedExponents[count - 1] == exponent) sortedCoefficients[count - 1] += coefficient;
+            else {
+                sortedExponents[count] = exponent;
+                sortedCoefficients[count++] = coefficient;
+            }
+        }
+
+        SparsePolynomial compact = compact(sortedExponents, sortedCoefficients, count);
+        this.exponents = compact.exponents;
+        this.coefficients = compact.coefficients;
+    }
+
+    /**
+     * Construct a SparsePolynomial with one term, like numericalCoefficient*X^degree.
+     *
+     * @param numericalCoefficient The coefficient of the term
+     * @param degree               The exponent of X
+     * @throws IllegalArgumentException If degree is negative.
+     * @since 1.3.0
+     */
+    public SparsePolynomial(double numericalCoefficient, int degree) throws IllegalArgumentException {
+        this(new int[]{degree}, new double[]{numericalCoefficient});
+    }
+
+    private SparsePolynomial() {
+    }
+
+    /**
+     * Wraps arrays without copying them. The exponents must be increasing, the coefficients must not be zero,
+     * and the arrays must never be changed afterwards.
+     *
+     * @param exponents    The exponents of the terms
+     * @param coefficients The coefficients of the terms
+     * @return the SparsePolynomial
+     */
+    private static SparsePolynomial wrap(int[] exponents, double[] coefficients) {
+        SparsePolynomial polynomial = new SparsePolynomial();
+        polynomial.exponents = exponents;
+        polynomial.coefficients = coefficients;
+        return polynomial;
+    }
+
+    /**
+     * Make a SparsePolynomial with the same coefficients as a plottable Polynomial.
+     *
+     * @param polynomial The plottable Polynomial
+     * @return the SparsePolynomial
+     * @throws AssertionError If the polynomial is not plottable.
+     * @since 1.3.0
+     */
+    public static SparsePolynomial from(Polynomial polynomial) throws AssertionError {
+        return from(DensePolynomial.from(polynomial));
+    }
+
+    /**
+     * Make a SparsePolynomial with the same coefficients as a DensePolynomial.
+     *
+     * @param polynomial The DensePolynomial
+     * @return the SparsePolynomial
+     * @since 1.3.0
+     */
+    public static SparsePolynomial from(DensePolynomial polynomial) {
+        return fromDense(polynomial.getCoefficients());
+    }
+
+    /**
+     * Gets the degree of the polynomial, which is the largest exponent. The zero polynomial has degree 0.
+     *
+     * @return the degree
+     * @since 1.3.0
+     */
+    public int getDegree() {
+        return this.exponents.length == 0 ? 0 : this.exponents[this.exponents.length - 1];
+    }
+
+    /**
+     * Get the numerical coefficient of the x term at the given degree, which is 0 if there is no such term.
+     *
+     * @param degree The degree of the x term
+     * @return the numerical coefficient
+     * @since 1.3.0
+     */
+    public double getCoefficientAt(int degree) {
+        int index = Arrays.binarySearch(this.exponents, degree);
+        return index >= 0 ? this.coefficients[index] : 0;
+    }
+
+    /**
+     * Get a copy of the exponents of the terms that are not zero.
+     *
+     * @return the exponents, in increasing order
+     * @since 1.3.0
+     */
+    public int[] getExponents() {
+        return this.exponents.clone();
+    }
+
+    /**
+     * Get a copy of the coefficients of the terms that are not zero, in the same order as {@link #getExponents()}.
+     *
+     * @return the coefficients
+     * @since 1.3.0
+     */
+    public double[] getCoefficients() {
+        return this.coefficients.clone();
+    }
+
+    /**
+     * Get the number of terms that are not zero.
+     *
+     * @return the number of terms
+     * @since 1.3.0
+     */
+    public int getTermCount() {
+        return this.exponents.length;
+    }
+
+    /**
+     * Get the fraction of the coefficients up to the degree that are not zero. The zero polynomial has a fill
+     * ratio of 0.
+     *
+     * @return the fill ratio, from 0 to 1
+     * @since 1.3.0
+     */
+    public double getFillRatio() {
+        return this.exponents.length / (this.getDegree() + 1.0);
+    }
+
+    /**
+     * Add two SparsePolynomials by merging their terms.
+     *
+     * @param polynomial SparsePolynomial to add
+     * @return the sum
+     * @since 1.3.0
+     */
+    public SparsePolynomial plus(SparsePolynomial polynomial) {
+        int[] sumExponents = new int[this.exponents.length + polynomial.exponents.length];
+        double[] sumCoefficients = new double[sumExponents.length];
+        int i = 0, j = 0, count = 0;
+
+        while (i < this.exponents.length || j < polynomial.exponents.length) {
+            if (j == polynomial.exponents.length
+                    || (i < this.exponents.length && this.exponents[i] < polynomial.exponents[j])) {
+                sumExponents[count] = this.exponents[i];
+                sumCoefficients[count++] = this.coefficients[i++];
+            } else if (i == this.exponents.length || polynomial.exponents[j] < this.exponents[i]) {
+                sumExponents[count] = polynomial.exponents[j];
+                sumCoefficients[count++] = polynomial.coefficients[j++];
+            } else {
+                sumExponents[count] = this.exponents[i];
+                sumCoefficients[count++] = this.coefficients[i++] + polynomial.coefficients[j++];
+            }
+        }
+
+        return compact(sumExponents, sumCoefficients, count);
+    }
+
+    /**
+     * Multiply by a scalar by multiplying all the coefficients by the scalar.
+     *
+     * @param scalar to multiply
+     * @return the product
+     * @since 1.3.0
+     */
+    public SparsePolynomial times(double scalar) {
+        double[] product = new double[this.coefficients.length];
+
+        for (int i = 0; i < product.length; i++) {
+            product[i] = this.coefficients[i] * scalar;
+        }
+
+        return compact(this.exponents.clone(), product, product.length);
+    }
+
+    /**
+     * Multiply two SparsePolynomials. If both have a fill ratio of at least 1/4, they are multiplied as
+     * DensePolynomials, which also uses Karatsuba's method and the FFT when they are long enough. Otherwise
+     * each term is multiplied by each term and the products are merged.
+     *
+     * @param polynomial to multiply
+     * @return the product
+     * @since 1.3.0
+     */
+    public SparsePolynomial times(SparsePolynomial polynomial) {
+        if (this.exponents.length == 0 || polynomial.exponents.length == 0) return fromDense(new double[0]);
+
+        if (this.getFillRatio() >= DENSE_FILL_RATIO && polynomial.getFillRatio() >= DENSE_FILL_RATIO) {
+            return fromDense(DensePolynomial.multiply(this.toDenseArray(), polynomial.toDenseArray()));
+        }
+
+        // Split the shorter one, since each of its terms costs a pass over the longer one.
+        if (this.exponents.length <= polynomial.exponents.length) {
+            return multiply(this, 0, this.exponents.length, polynomial);
+        }
+
+        return multiply(polynomial, 0, polynomial.exponents.length, this);
+    }
+
+    /**
+     * Raise to a power by repeated squaring. Powers of 0 or less give the constant 1.
+     *
+     * @param power to raise by
+     * @return the result
+     * @since 1.3.0
+     */
+    public SparsePolynomial raiseTo(int power) {
+        if (power <= 0) return new SparsePolynomial(1.0, 0);
+
+        SparsePolynomial result = this;
+
+        for (int bit = Integer.highestOneBit(power) >> 1; bit != 0; bit >>= 1) {
+            result = result.times(result);
+            if ((power & bit) != 0) result = this.times(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Composes two SparsePolynomials with Horner's scheme, skipping the missing terms:
+     * p[q] = (...(a_k*q^(e_k - e_k-1) + a_k-1)*q^(e_k-1 - e_k-2) + ...)*q^e_0.
+     * Example: if this = p(x) and polynomial = q(x), this.of(polynomial) returns p[q(x)]
+     *
+     * @param polynomial The inner polynomial
+     * @return the composition
+     * @since 1.3.0
+     */
+    public SparsePolynomial of(SparsePolynomial polynomial) {
+        int last = this.exponents.length - 1;
+
+        if (last < 0) return this;
+
+        SparsePolynomial result = new SparsePolynomial(this.coefficients[last], 0);
+
+        for (int i = last - 1; i >= 0; i--) {
+            result = result.times(polynomial.raiseTo(this.exponents[i + 1] - this.exponents[i]));
+            result = result.plus(new SparsePolynomial(this.coefficients[i], 0));
+        }
+
+        return this.exponents[0] == 0 ? result : result.times(polynomial.raiseTo(this.exponents[0]));
+    }
+
+    /**
+     * Plug a number into the polynomial, using Horner's scheme with a power of x for each gap between terms.
+     *
+     * @param x The value to plug into the polynomial
+     * @return the result
+     * @since 1.3.0
+     */
+    public double eval(double x) {
+        int last = this.exponents.length - 1;
+
+        if (last < 0) return 0;
+
+        double result = this.coefficients[last];
+
+        for (int i = last - 1; i >= 0; i--) {
+            result = result * power(x, this.exponents[i + 1] - this.exponents[i]) + this.coefficients[i];
+        }
+
+        return result * power(x, this.exponents[0]);
+    }
+
+    /**
+     * Make a DensePolynomial with the same coefficients. This takes memory in proportion to the degree.
+     *
+     * @return the DensePolynomial
+     * @since 1.3.0
+     */
+    public DensePolynomial toDense() {
+        return DensePolynomial.wrap(this.toDenseArray());
+    }
+
+    /**
+     * Make a Polynomial with the same coefficients. This takes memory in proportion to the degree.
+     *
+     * @return the Polynomial
+     * @since 1.3.0
+     */
+    public Polynomial toPolynomial() {
+        return new Polynomial(this.toDenseArray());
+    }
+
+    /**
+     * Multiplies a range of the terms of a by all of b, by splitting the range in half until it is one term,
+     * and then merging the halves. Each merge is linear, so this takes O(n m log n) time for n and m terms.
+     *
+     * @param a    The factor whose terms are split
+     * @param from Index of the first term of a
+     * @param to   Index after the last term of a
+     * @param b    The other factor
+     * @return the product of the range and b
+     */
+    private static SparsePolynomial multiply(SparsePolynomial a, int from, int to, SparsePolynomial b) {
+        if (to - from == 1) {
+            int[] productExponents = new int[b.exponents.length];
+            double[] productCoefficients = new double[b.exponents.length];
+
+            for (int j = 0; j < b.exponents.length; j++) {
+                productExponents[j] = Math.addExact(a.exponents[from], b.exponents[j]);
+                productCoefficients[j] = a.coefficients[from] * b.coefficients[j];
+            }
+
+            return compact(productExponents, productCoefficients, productExponents.length);
+        }
+
+        int middle = (from + to) >>> 1;
+        return multiply(a, from, middle, b).plus(multiply(a, middle, to, b));
+    }
+
+    /**
+     * Makes a SparsePolynomial from the first count terms of sorted arrays, leaving out the terms that are zero.
+     * The arrays are used as they are when nothing is left out.
+     *
+     * @param exponents    Increasing exponents
+     * @param coefficients Their coefficients
+     * @param count        How many of the terms to use
+     * @return the SparsePolynomial
+     */
+    private static SparsePolynomial compact(int[] exponents, double[] coefficients, int count) {
+        int nonZero = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (coefficients[i] != 0) nonZero++;
+        }
+
+        if (nonZero == exponents.length) return wrap(exponents, coefficients);
+
+        int[] compactExponents = new int[nonZero];
+        double[] compactCoefficients = new double[nonZero];
+
+        for (int i = 0, j = 0; i < count; i++) {
+            if (coefficients[i] != 0) {
+                compactExponents[j] = exponents[i];
+                compactCoefficients[j++] = coefficients[i];
+            }
+        }
+
+        return wrap(compactExponents, compactCoefficients);
+    }
+
+    /**
+     * Makes a SparsePolynomial from dense coefficients, index being the exponent.
+     *
+     * @param coefficients The dense coefficients
+     * @return the SparsePolynomial
+     */
+    private static SparsePolynomial fromDense(double[] coefficients) {
+        int[] exponents = new int[coefficients.length];
+
+        for (int i = 0; i < exponents.length; i++) {
+            exponents[i] = i;
+        }
+
+        return compact(exponents, coefficients, coefficients.length);
+    }
+
+    /**
+     * Spreads the terms out into dense coefficients, index being the exponent.
+     *
+     * @return the dense coefficients
+     */
+    private double[] toDenseArray() {
+        double[] dense = new double[this.getDegree() + 1];
+
+        for (int i = 0; i < this.exponents.length; i++) {
+            dense[this.exponents[i]] = this.coefficients[i];
+        }
+
+        return dense;
+    }
+
+    /**
+     * x to a whole power, without calling Math.pow for the common small gaps.
+     *
+     * @param x     The base
+     * @param power The power, at least 0
+     * @return x^power
+     */
+    private static double power(double x, int power) {
+        if (power == 0) return 1;
+        if (power == 1) return x;
+        return Math.pow(x, power);
+    }
+
+    /**
+     * Returns a printable string, the same as the equivalent Polynomial, but without making one.
+     *
+     * @return String representing the polynomial.
+     * @since 1.3.0
+     */
+    @Override
+    public String toString() {
+        StringBuilder string = new StringBuilder();
+
+        for (int i = this.exponents.length - 1; i >= 0; i--) {
+            int exponent = this.exponents[i];
+            String coef = new Coef(this.coefficients[i]).toString();
+
+            if (exponent == 0) {
+                // The constant gets a "+" unless it is negative or the only term.
+                if (this.getDegree() > 0 && !coef.startsWith("-")) string.append("+");
+                string.append(coef);
+            } else {
+                // If the coef is 1.0, don't print the coef
+                if (this.coefficients[i] != 1.0) string.append("(").append(coef).append(")");
+
+                string.append("X");
+                if (exponent > 1) string.append("^").append(exponent);
+
+                // Only terms of order 2 and higher are followed by a "+", and only when an x term comes next.
+                if (exponent > 1 && i > 0 && this.exponents[i - 1] > 0) string.append("+");
+            }
+        }
+
+        return string.toString();
+    }
+}
@@ -15,9 +15,21 @@ import java.util.Arrays;
  * @version 1.1.0 (06/17/2019)
  */
 public class Term implements Comparable<Term> {
+    // The Atoms of every constant Term. An empty array can't be changed, so it is safe to share.
+    private static final Atom[] NO_ATOMS = new Atom[0];
+
     private double numericalCoefficient;
     private Atom[] atoms;
 
+    // Most Terms have one or two Atoms, so those are kept here instead of in an array of their own, and atoms
+    // is null. The array is only made when it is needed, see atoms(). They are ignored once atoms is set.
+    private Atom first, second;
+
+    // The Monomial of the atoms when they were last reduced, which is the Term's normalized state. It is only
+    // trusted while it still matches the atoms, checked in one pass, and is cleared by the setters. A Term made
+    // from a Monomial has only this, with atoms and first null, until its Atoms are needed.
+    private Monomial monomial;
+
     /**
      * Default constructor.
      *
@@ -36,7 +48,7 @@ public class Term implements Comparable<Term> {
      */
     public Term(double constant) {
         this.numericalCoefficient = constant;
-        this.atoms = new Atom[0];
+        this.atoms = NO_ATOMS;
     }
 
     /**
@@ -47,7 +59,9 @@ public class Term implements Comparable<Term> {
      */
     public Term(Atom atom) {
         this.numericalCoefficient = 1.0;
-        this.atoms = new Atom[]{atom};
+
+        if (atom == null) this.atoms = new Atom[]{null};
+        else this.first = atom;
     }
 
     /**
@@ -57,7 +71,7 @@ public class Term implements Comparable<Term> {
      */
     public Term(char letter) {
         this.numericalCoefficient = 1.0;
-        this.atoms = new Atom[]{new Atom(letter)};
+        this.first = new Atom(letter, -1, 1);
     }
 
     /**
@@ -70,10 +84,190 @@ public class Term implements Comparable<Term> {
     public Term(double numericalCoefficient, Atom[] atoms) {
         this.numericalCoefficient = numericalCoefficient;
 
-        if (atoms != null) {
-            this.atoms = new Atom[atoms.length];
-            System.arraycopy(atoms, 0, this.atoms, 0, atoms.length);
+        if (atoms != null) this.hold(atoms, true);
+    }
+
+    /**
+     * Construct a Term with a new number and the same Atoms as another Term, without making its array if it
+     * has none. The other Term's array is copied.
+     *
+     * @param numericalCoefficient The numericalCoefficient attribute
+     * @param term                 The Term with the Atoms
+     * @param monomial             The Monomial of the Atoms if they are reduced, or null
+     */
+    Term(double numericalCoefficient, Term term, Monomial monomial) {
+        this.numericalCoefficient = numericalCoefficient;
+        this.monomial = monomial;
+
+        if (term.atoms != null) {
+            this.hold(term.atoms, true);
+        } else if (term.first != null) {
+            this.first = term.first;
+            this.second = term.second;
+        } else {
+            // No Atoms made yet, or null atoms.
+            this.monomial = term.monomial;
+        }
+    }
+
+    /**
+     * Construct a Term from a number and a Monomial. The Atoms are only made when they are asked for, new for
+     * each Term, so changing the Atoms of one Term doesn't change another.
+     *
+     * @param numericalCoefficient The numericalCoefficient attribute
+     * @param monomial             The product of the Atoms
+     */
+    Term(double numericalCoefficient, Monomial monomial) {
+        this.numericalCoefficient = numericalCoefficient;
+        this.monomial = monomial;
+    }
+
+    /**
+     * Share the Monomials of new Terms with every other Term with the same Monomial, see {@link MonomialInterner}.
+     * Products call this on the Terms they return, once like products are combined, so the table is only looked
+     * in once per distinct product, and not for the Terms made on the way.
+     *
+     * @param terms New Terms that no one else holds yet
+     * @return the Terms
+     */
+    static Term[] intern(Term[] terms) {
+        for (Term term : terms) {
+            if (term.monomial != null) term.monomial = MonomialInterner.intern(term.monomial);
         }
+
+        return terms;
+    }
+
+    /**
+     * Keep Atoms in the smallest shape: none are shared by every constant Term, one or two are kept in fields,
+     * and more are kept in an array.
+     *
+     * @param atoms The Atoms
+     * @param copy  If true, copy the array rather than keep it
+     */
+    private void hold(Atom[] atoms, boolean copy) {
+        this.first = null;
+        this.second = null;
+
+        if (atoms.length == 0) {
+            this.atoms = NO_ATOMS;
+        } else if (atoms.length <= 2 && atoms[0] != null && atoms[atoms.length - 1] != null) {
+            this.atoms = null;
+            this.first = atoms[0];
+            if (atoms.length == 2) this.second = atoms[1];
+        } else {
+            this.atoms = copy ? atoms.clone() : atoms;
+        }
+    }
+
+    /**
+     * Get the array of Atoms, making it from the fields or the Monomial if the Term doesn't have one yet.
+     *
+     * @return the atoms, or null
+     */
+    private Atom[] atoms() {
+        if (this.hasOnlyMonomial()) this.hold(this.monomial.toAtoms(), false);
+
+        Atom[] atoms = this.atoms;
+
+        if (atoms == null && this.first != null) {
+            atoms = this.second == null ? new Atom[]{this.first} : new Atom[]{this.first, this.second};
+            this.atoms = atoms;
+        }
+
+        return atoms;
+    }
+
+    /**
+     * Check if the atoms are null, without making the array.
+     *
+     * @return true if the atoms are null
+     */
+    boolean hasNullAtoms() {
+        return this.atoms == null && this.first == null && this.monomial == null;
+    }
+
+    /**
+     * Check if the Term was made from a Monomial and hasn't made its Atoms yet.
+     */
+    private boolean hasOnlyMonomial() {
+        return this.atoms == null && this.first == null && this.monomial != null;
+    }
+
+    /**
+     * Get the number of Atoms, without making the array.
+     *
+     * @return the length of the atoms
+     */
+    int getAtomCount() {
+        if (this.hasOnlyMonomial()) return this.monomial.size();
+
+        // Null atoms throw, as getAtoms().length does.
+        if (this.atoms != null || this.first == null) return this.atoms.length;
+        return this.second == null ? 1 : 2;
+    }
+
+    /**
+     * Get an Atom, without making the array. If the Term hasn't made its Atoms yet, the Atom is a new one that
+     * is not kept, so changing it doesn't change the Term.
+     *
+     * @param index The index of the Atom
+     * @return the Atom
+     */
+    Atom getAtom(int index) {
+        if (this.hasOnlyMonomial()) return this.monomial.toAtom(index);
+
+        if (this.atoms != null) return this.atoms[index];
+        if (index == 0) return this.first;
+        if (index == 1 && this.second != null) return this.second;
+
+        throw new ArrayIndexOutOfBoundsException(index);
+    }
+
+    /**
+     * Get the key of the letter and subscript of an Atom, see {@link Monomial#key(Atom)}, without making it.
+     *
+     * @param index The index of the Atom
+     * @return the key
+     */
+    long getKey(int index) {
+        if (this.hasOnlyMonomial()) return this.monomial.keyAt(index);
+        return Monomial.key(this.getAtom(index));
+    }
+
+    /**
+     * Get the power of an Atom, without making it.
+     *
+     * @param index The index of the Atom
+     * @return the power
+     */
+    int getPower(int index) {
+        if (this.hasOnlyMonomial()) return this.monomial.powerAt(index);
+        return this.getAtom(index).getPower();
+    }
+
+    /**
+     * Check if the Atoms are exactly a Monomial and fully reduced, see {@link Monomial#matches(Atom[])}, without
+     * making the array.
+     *
+     * @param monomial The Monomial
+     * @return true if the Atoms match it
+     */
+    boolean hasAtomsOf(Monomial monomial) {
+        if (this.atoms != null) return monomial.matches(this.atoms);
+        if (this.first != null) return monomial.matches(this.first, this.second);
+
+        // Atoms made from the Monomial would match it unless one of its powers is 0.
+        return this.monomial != null && this.monomial.equals(monomial) && monomial.withoutZeroPowers() == monomial;
+    }
+
+    /**
+     * Check if the Atoms were reduced and haven't been changed since, so {@link #reduce()} would not change them.
+     *
+     * @return true if reduced
+     */
+    boolean isReduced() {
+        return this.monomial != null && this.hasAtomsOf(this.monomial);
     }
 
     /**
@@ -103,7 +297,7 @@ public class Term implements Comparable<Term> {
      */
     @Deprecated
     public Atom[] getTermAtoms() {
-        return this.atoms;
+        return this.atoms();
     }
 
     /**
@@ -113,7 +307,31 @@ public class Term implements Comparable<Term> {
      * @since 1.1.0
      */
     public Atom[] getAtoms() {
-        return atoms;
+        return this.atoms();
+    }
+
+    /**
+     * Get the Monomial of the Atoms, i.e. the Atoms reduced and packed into arrays. The Atoms are not changed.
+     *
+     * @return the Monomial
+     */
+    Monomial getMonomial() {
+        Monomial monomial = this.monomial;
+
+        // The atoms array and its Atoms can be changed from outside, so check they still match.
+        if (monomial != null && this.hasAtomsOf(monomial)) return monomial;
+
+        return Monomial.of(Monomial.reduce(this.atoms()));
+    }
+
+    /**
+     * Get the letters and subscripts in the Term as a set of bits, see {@link Monomial#variables()}. Terms with
+     * no bits in common have no letter and subscript in common.
+     *
+     * @return the bits, 0 for a constant or for null atoms
+     */
+    long getVariables() {
+        return this.hasNullAtoms() ? 0 : this.getMonomial().variables();
     }
 
     /**
@@ -125,6 +343,9 @@ public class Term implements Comparable<Term> {
     public void setTerm(double num, Atom[] atoms) {
         this.numericalCoefficient = num;
         this.atoms = atoms; // TODO: should this be an arraycopy?
+        this.first = null;
+        this.second = null;
+        this.monomial = null;
 
         this.reduce();
     }
@@ -147,6 +368,9 @@ public class Term implements Comparable<Term> {
     @Deprecated
     public void setTerm(Atom[] atoms) {
         this.atoms = atoms; // TODO: should this be an arraycopy?
+        this.first = null;
+        this.second = null;
+        this.monomial = null;
     }
 
 
@@ -168,6 +392,9 @@ public class Term implements Comparable<Term> {
      */
     public void setAtoms(Atom[] atoms) {
         this.atoms = atoms; // TODO: should this be an arraycopy?
+        this.first = null;
+        this.second = null;
+        this.monomial = null;
     }
 
 
@@ -220,10 +447,10 @@ public class Term implements Comparable<Term> {
      * @since 1.0.0
      */
     public Term paste(Atom atom) {
-        Atom[] atoms = new Atom[this.atoms.length + 1];
+        Atom[] atoms = new Atom[this.getAtoms().length + 1];
         atoms[0] = atom;
 
-        System.arraycopy(this.atoms, 0, atoms, 1, atoms.length - 1);
+        System.arraycopy(this.getAtoms(), 0, atoms, 1, atoms.length - 1);
 
         return new Term(this.numericalCoefficient, atoms);
     }
@@ -237,10 +464,10 @@ public class Term implements Comparable<Term> {
      * @since 1.1.0
      */
     public void push(Atom atom) {
-        Atom[] atoms = new Atom[this.atoms.length + 1];
+        Atom[] atoms = new Atom[this.getAtoms().length + 1];
         atoms[0] = atom;
 
-        System.arraycopy(this.atoms, 0, atoms, 1, atoms.length - 1);
+        System.arraycopy(this.getAtoms(), 0, atoms, 1, atoms.length - 1);
 
         this.setAtoms(atoms);
     }
@@ -254,9 +481,9 @@ public class Term implements Comparable<Term> {
      * @since 1.1.0
      */
     public void append(Atom atom) {
-        Atom[] atoms = new Atom[this.atoms.length + 1];
+        Atom[] atoms = new Atom[this.getAtoms().length + 1];
 
-        System.arraycopy(this.atoms, 0, atoms, 0, atoms.length - 1);
+        System.arraycopy(this.getAtoms(), 0, atoms, 0, atoms.length - 1);
         atoms[atoms.length - 1] = atom;
 
         this.setAtoms(atoms);
@@ -275,24 +502,24 @@ public class Term implements Comparable<Term> {
      * @since 1.0.0
      */
     public Term place(Atom atom) {
-        Term term = new Term(this.numericalCoefficient, this.atoms);
+        Term term = new Term(this.numericalCoefficient, this.getAtoms());
 
-        if (atom.isLessThan(this.atoms[0])) {
+        if (atom.isLessThan(this.getAtoms()[0])) {
             return term.paste(atom);
         } else {
             Atom atom1;
 
-            if (atom.isLike(this.atoms[0])) {
-                atom1 = this.atoms[0];
+            if (atom.isLike(this.getAtoms()[0])) {
+                atom1 = this.getAtoms()[0];
                 return term.snip().paste(atom1.timesLikeAtom(atom));
-            } else if (this.atoms.length == 1) {
+            } else if (this.getAtoms().length == 1) {
                 atom1 = new Atom(atom.getLetter(), atom.getSubscript(), atom.getPower());
                 Atom[] atoms1 = new Atom[]{atom1};
                 Term term1 = new Term(this.numericalCoefficient, atoms1);
-                return term1.paste(this.atoms[0]);
+                return term1.paste(this.getAtoms()[0]);
             } else {
                 atom1 = new Atom();
-                atom1.setAtom(this.atoms[0].getLetter(), this.atoms[0].getSubscript(), this.atoms[0].getPower());
+                atom1.setAtom(this.getAtoms()[0].getLetter(), this.getAtoms()[0].getSubscript(), this.getAtoms()[0].getPower());
                 return term.snip().place(atom).paste(atom1);
             }
         }
@@ -314,14 +541,14 @@ public class Term implements Comparable<Term> {
         if (this.getAtoms() == null || this.getAtoms().length == 0) {
             // If there are no atoms make this the atom
             this.setAtoms(new Atom[]{atom});
-        } else if (atom.isLessThan(this.atoms[0])) {
+        } else if (atom.isLessThan(this.getAtoms()[0])) {
             // If this atom is smaller then it goes in front
             this.push(atom);
-        } else if (atom.isLike(this.atoms[0])) {
+        } else if (atom.isLike(this.getAtoms()[0])) {
             // Replace the first atom with the product of the first atom and this atom
             Atom head = this.pop();
             this.push(head.timesLikeAtom(atom));
-        } else if (this.atoms.length == 1) {
+        } else if (this.getAtoms().length == 1) {
             // Otherwise put it at the end
             this.append(atom);
         } else {
@@ -342,9 +569,9 @@ public class Term implements Comparable<Term> {
      * @since 1.0.0
      */
     public Term simplify() {
-        if (this.atoms != null && this.atoms.length > 1) {
-            Atom atom = new Atom(this.atoms[0].getLetter(), this.atoms[0].getSubscript(), this.atoms[0].getPower());
-            Term term = new Term(this.numericalCoefficient, this.atoms);
+        if (this.getAtoms() != null && this.getAtoms().length > 1) {
+            Atom atom = new Atom(this.getAtoms()[0].getLetter(), this.getAtoms()[0].getSubscript(), this.getAtoms()[0].getPower());
+            Term term = new Term(this.numericalCoefficient, this.getAtoms());
 
             term = term.snip().simplify().place(atom);
             this.setAtoms(term.getAtoms());
@@ -363,21 +590,15 @@ public class Term implements Comparable<Term> {
      * @since 1.1.0
      */
     public void reduce() {
-        if (this.getAtoms() == null) return;
+        if (this.hasNullAtoms()) return;
 
-        // Shallow copy
-        Atom[] unorderedAtoms = this.getAtoms();
+        // Already reduced, and not changed since.
+        if (this.isReduced()) return;
 
-        // Remove existing atoms
-        this.atoms = new Atom[0];
-
-        // Put them back in order
-        for (int i = 0; i < unorderedAtoms.length; i++) {
-            // Clean out atoms with a power of 0
-            if (unorderedAtoms[i].getPower() != 0) {
-                this.insert(unorderedAtoms[i]);
-            }
-        }
+        // Put the atoms in order, combining like atoms and cleaning out atoms with a power of 0
+        Atom[] atoms = Monomial.reduce(this.atoms());
+        this.monomial = Monomial.of(atoms);
+        this.hold(atoms, false);
     }
 
     /**
@@ -388,24 +609,12 @@ public class Term implements Comparable<Term> {
      * @since 1.0.0
      */
     public Term times(Term term) {
-        if (this.atoms == null || term.atoms == null) return term;
-
-        Atom[] atoms = new Atom[this.atoms.length + term.getAtoms().length];
+        if (this.hasNullAtoms() || term.hasNullAtoms()) return term;
 
-        for (int i = 0; i < atoms.length; ++i) {
+        // Merge the sorted Atoms of both, adding the powers of like Atoms.
+        Monomial monomial = this.getMonomial().times(term.getMonomial());
 
-            if (i < this.atoms.length) {
-                // Assign the first array of Atoms into atoms
-                atoms[i] = this.atoms[i];
-            } else {
-                // Assign the second array of Atoms into atoms
-                atoms[i] = term.getAtoms()[i - this.atoms.length];
-            }
-        }
-
-        Term termProduct = new Term(this.numericalCoefficient * term.getNumericalCoefficient(), atoms);
-        termProduct.reduce();
-        return termProduct;
+        return new Term(this.numericalCoefficient * term.getNumericalCoefficient(), monomial);
     }
 
     /**
@@ -416,7 +625,33 @@ public class Term implements Comparable<Term> {
      * @since 1.0.0
      */
     public Term times(double scalar) {
-        return new Term(scalar * this.getNumericalCoefficient(), this.getAtoms());
+        return new Term(scalar * this.getNumericalCoefficient(), this, this.monomial);
+    }
+
+    /**
+     * Copy this Term with new Atoms, so that changing one doesn't change the other.
+     *
+     * @return the copy
+     */
+    Term copy() {
+        Term term = new Term(this.numericalCoefficient, (Atom[]) null);
+        term.monomial = this.monomial;
+
+        // Without Atoms yet, the copy makes its own when they are needed.
+        if (this.hasOnlyMonomial()) return term;
+
+        if (!this.hasNullAtoms()) {
+            Atom[] atoms = new Atom[this.getAtomCount()];
+
+            for (int i = 0; i < atoms.length; i++) {
+                Atom atom = this.getAtom(i);
+                atoms[i] = new Atom(atom.getLetter(), atom.getSubscript(), atom.getPower());
+            }
+
+            term.hold(atoms, false);
+        }
+
+        return term;
     }
 
     /**
@@ -457,16 +692,8 @@ public class Term implements Comparable<Term> {
         this.reduce();  // TODO. It seems wrong to change a Term in a checking method.
         term.reduce();
 
-        if (this.getAtoms().length != term.getAtoms().length) return false;
-
-        for (int i = 0; i < this.getAtoms().length; ++i) {
-            if (!this.getAtoms()[i].isLike(term.getAtoms()[i])) {
-                return false;
-            }
-        }
-
-        // If got this far, have the same number of Atoms each atom pair has same letter and subscript.
-        return true;
+        // Same letters and subscripts in the same order.
+        return this.getMonomial().isLike(term.getMonomial());
     }
 
     /**
@@ -518,7 +745,7 @@ public class Term implements Comparable<Term> {
      */
     @Deprecated
     public boolean isDouble() {
-        return this.atoms.length == 0;
+        return this.getAtomCount() == 0;
     }
 
     /**
@@ -528,10 +755,9 @@ public class Term implements Comparable<Term> {
      * @since 1.1.0
      */
     public boolean isConstantTerm() {
-        boolean isConstantTerm = false;
-        if (this.getAtoms().length == 0) isConstantTerm = true;
-        else if (this.getAtoms().length == 1 && this.getAtoms()[0].toString() == "") isConstantTerm = true;
-        return isConstantTerm;
+        // A lone Atom with a power of 0 is the only Atom that prints as nothing.
+        int count = this.getAtomCount();
+        return count == 0 || (count == 1 && this.getPower(0) == 0);
     }
 
     /**
@@ -565,25 +791,25 @@ public class Term implements Comparable<Term> {
      */
     @Deprecated
     public void print() {
-        if (this.atoms.length == 0 && this.numericalCoefficient != 0.0D) {
+        if (this.getAtoms().length == 0 && this.numericalCoefficient != 0.0D) {
             System.out.print(this.numericalCoefficient);
         } else {
             int i;
             if (this.numericalCoefficient == 1.0D) {
-                for (i = 0; i < this.atoms.length; ++i) {
-                    this.atoms[i].print();
+                for (i = 0; i < this.getAtoms().length; ++i) {
+                    this.getAtoms()[i].print();
                 }
             } else if (this.numericalCoefficient == -1.0D) {
                 System.out.print("-");
 
-                for (i = 0; i < this.atoms.length; ++i) {
-                    this.atoms[i].print();
+                for (i = 0; i < this.getAtoms().length; ++i) {
+                    this.getAtoms()[i].print();
                 }
             } else {
                 System.out.print(this.numericalCoefficient);
 
-                for (i = 0; i < this.atoms.length; ++i) {
-                    this.atoms[i].print();
+                for (i = 0; i < this.getAtoms().length; ++i) {
+                    this.getAtoms()[i].print();
                 }
             }
         }
@@ -601,23 +827,12 @@ public class Term implements Comparable<Term> {
         term.reduce();
 
         if (term == null) return false;
-        if (this.getAtoms() == null && term.getAtoms() == null) return true;
-        if (this.getAtoms() == null) return false;
-        if (term.getAtoms() == null) return false;
-
-        if (this.getAtoms().length == term.getAtoms().length) {
-
-            for (int i = 0; i < this.getAtoms().length; ++i) {
-                if (!this.getAtoms()[i].equals(term.getAtoms()[i])) {
-                    return false;
-                }
-            }
+        if (this.hasNullAtoms() && term.hasNullAtoms()) return true;
+        if (this.hasNullAtoms()) return false;
+        if (term.hasNullAtoms()) return false;
 
-            // If got this far, they must be equal
-            return true;
-        }
-
-        return false;
+        // Same letters, subscripts and powers in the same order.
+        return this.getMonomial().equals(term.getMonomial());
     }
 
     /**
@@ -631,15 +846,15 @@ public class Term implements Comparable<Term> {
         StringBuilder string = new StringBuilder();
 
         if (this.numericalCoefficient == 0) return "";
-        if (this.atoms == null || this.atoms.length == 0) return String.valueOf(this.numericalCoefficient);
+        if (this.hasNullAtoms() || this.getAtomCount() == 0) return String.valueOf(this.numericalCoefficient);
 
         // Prepend with the numerical coef (unless it's 1, which is implied)
         if (this.numericalCoefficient == -1.0D) string.append("-");
         else if (this.numericalCoefficient != 1.0D) string.append(String.valueOf(this.numericalCoefficient));
 
         // Append all the atoms
-        for (int i = 0; i < this.atoms.length; i++) {
-            string.append(this.atoms[i].toString());
+        for (int i = 0; i < this.getAtomCount(); i++) {
+            string.append(this.getAtom(i).toString());
         }
 
         return string.toString();
@@ -670,23 +885,38 @@ public class Term implements Comparable<Term> {
             return 1;
         } else {
             // If both terms have atoms, ignore the numerical coefficient,
-            // and compare atoms alphanumerically.
-            Term thisTerm = new Term(1.0, this.getAtoms());
-            Term thatTerm = new Term(1.0, t.getAtoms());
-
-            Arrays.sort(thisTerm.getAtoms());
-            Arrays.sort(thatTerm.getAtoms());
+            // and compare atoms alphanumerically. Terms that tie are never equal.
+            return TermOrder.compareAtoms(this, t) < 0 ? -1 : 1;
+        }
+    }
 
-            String theseAtoms = thisTerm.toString();
-            String thoseAtoms = thatTerm.toString();
+    /**
+     * The string that {@link #compareTo(Term)} compares, ignoring case, for Terms that are not constant: the
+     * Atoms sorted and printed without the numerical coefficient. {@link TermOrder} reads it from the Atoms
+     * without building it when it can.
+     *
+     * @return the sort key
+     */
+    String getSortKey() {
+        Term term = new Term(1.0, this, null);
+        Arrays.sort(term.getAtoms());
+        return term.toString();
+    }
 
-            if (theseAtoms.equals(t))
-                return 0;
-            else if (theseAtoms.compareToIgnoreCase(thoseAtoms) < 0)
-                return -1;
-            else
-                return 1;
+    /**
+     * Check if any two Terms next to each other in a sorted array tie, i.e. their sort keys are equal ignoring
+     * case. Sorting only puts Terms in one order if none tie, otherwise the order depends on the order they
+     * were in before.
+     *
+     * @param terms Terms sorted with {@link #compareTo(Term)}
+     * @return true if two Terms tie
+     */
+    static boolean hasSortTies(Term[] terms) {
+        for (int i = 1; i < terms.length; i++) {
+            if (TermOrder.compareSortKeys(terms[i - 1], terms[i]) == 0) return true;
         }
+
+        return false;
     }
 }
 
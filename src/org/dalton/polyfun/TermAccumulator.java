@@ -0,0 +1,191 @@
+package org.dalton.polyfun;
+
+import java.util.Arrays;
+
+/**
+ * Adds up Terms by combining like Terms, for building the Terms of a Coef. Each Term is looked up by its
+ * {@link Monomial} in an open-addressing hash table, so adding a Term takes O(1) time instead of a scan of
+ * all the Terms so far, and the Terms are only sorted once, when they are taken out with {@link #toTerms(boolean)}.
+ * <p>
+ * The Terms are the same as inserting them one at a time with {@link Coef#insert(Term)}: Terms that are zero
+ * are skipped, the numerical coefficients of like Terms are added in the order they come in, and the Terms come
+ * out in the order of {@link Term#compareTo(Term)}. Terms that tie in that order, because their sort keys are
+ * equal ignoring case, such as b and 2.0B, stay in the order they were first added. Inserting puts each new
+ * Term in front of the Terms it ties with instead, so reducing the same Coef twice swapped them; here
+ * reducing again leaves them where they are.
+ */
+final class TermAccumulator {
+    // Largest fraction of the table that is used before it is doubled.
+    private static final double MAX_LOAD = 0.5;
+
+    // Per distinct Monomial, in the order they were first added.
+    private Monomial[] monomials;
+    private Term[] sources;
+    private double[] coefficients;
+    private int size;
+
+    // Open-addressing table of indexes into the arrays above, plus 1 so that 0 is an empty slot.
+    private int[] table;
+
+    // Index of the Term with null atoms, which is only like other Terms with null atoms, or -1.
+    private int nullAtomsIndex = -1;
+
+    /**
+     * Make an empty accumulator.
+     *
+     * @param expectedSize About how many distinct Terms will be added
+     */
+    TermAccumulator(int expectedSize) {
+        int capacity = Math.max(4, expectedSize);
+        this.monomials = new Monomial[capacity];
+        this.sources = new Term[capacity];
+        this.coefficients = new double[capacity];
+        this.table = new int[tableSize(capacity)];
+    }
+
+    /**
+     * Add a Term. If a like Term was added before, the numerical coefficients are added, otherwise the Term
+     * is kept with its Atoms. Terms that are zero are skipped.
+     *
+     * @param term The Term to add
+     */
+    void add(Term term) {
+        if (term.isZero()) return;
+
+        if (term.hasNullAtoms()) {
+            if (this.nullAtomsIndex >= 0) this.combine(this.nullAtomsIndex, term.getNumericalCoefficient());
+            else this.nullAtomsIndex = this.append(null, null, term.getNumericalCoefficient());
+            return;
+        }
+
+        // Keep the Term's Atoms if they are already reduced. Atoms that cancelled to a power of 0 are left out
+        // of the key, so the Term is like the Term without them, as Term.equals(Term) finds after reducing again.
+        Monomial monomial = term.getMonomial().withoutZeroPowers();
+        Term source = term.hasAtomsOf(monomial) ? term : null;
+
+        this.add(monomial, source, term.getNumericalCoefficient());
+    }
+
+    /**
+     * Add the Term numericalCoefficient times monomial, without making the Term.
+     *
+     * @param monomial             The Monomial of the Term
+     * @param numericalCoefficient The numerical coefficient of the Term
+     */
+    void add(Monomial monomial, double numericalCoefficient) {
+        if (numericalCoefficient == 0.0D) return;
+
+        this.add(monomial, null, numericalCoefficient);
+    }
+
+    /**
+     * Make the Terms added so far, sorted, with Terms that tie in the order they were first added.
+     *
+     * @param dropZeros If true, leave out like Terms that added up to zero
+     * @return the Terms
+     */
+    Term[] toTerms(boolean dropZeros) {
+        Term[] terms = new Term[this.size];
+        int length = 0;
+
+        for (int i = 0; i < this.size; i++) {
+            if (dropZeros && this.coefficients[i] == 0.0D) continue;
+
+            if (i == this.nullAtomsIndex) terms[length++] = new Term(this.coefficients[i], (Atom[]) null);
+            else if (this.sources[i] == null) terms[length++] = new Term(this.coefficients[i], this.monomials[i]);
+            else terms[length++] = new Term(this.coefficients[i], this.sources[i], this.monomials[i]);
+        }
+
+        if (length < terms.length) terms = Arrays.copyOf(terms, length);
+
+        // A stable sort that ties like Term.compareTo(Term) orders nothing else, so tied Terms keep their order.
+        Arrays.sort(terms, TermOrder::compareSortKeys);
+        return Term.intern(terms);
+    }
+
+    /**
+     * Add a Term that is not zero.
+     *
+     * @param monomial             The Monomial of the Term
+     * @param source               The Term whose reduced Atoms to keep, or null to make them from the Monomial
+     * @param numericalCoefficient The numerical coefficient of the Term
+     */
+    private void add(Monomial monomial, Term source, double numericalCoefficient) {
+        int mask = this.table.length - 1;
+        int slot = spread(monomial.hashCode()) & mask;
+
+        // Linear probing
+        for (int entry; (entry = this.table[slot]) != 0; slot = (slot + 1) & mask) {
+            if (this.monomials[entry - 1].equals(monomial)) {
+                this.combine(entry - 1, numericalCoefficient);
+                return;
+            }
+        }
+
+        this.table[slot] = this.append(monomial, source, numericalCoefficient) + 1;
+
+        if (this.size > this.table.length * MAX_LOAD) this.rehash(this.table.length * 2);
+    }
+
+    /**
+     * Add a numerical coefficient to a like Term, new coefficient first, as Coef.insert(Term) does.
+     *
+     * @param index                The index of the like Term
+     * @param numericalCoefficient The numerical coefficient to add
+     */
+    private void combine(int index, double numericalCoefficient) {
+        this.coefficients[index] = numericalCoefficient + this.coefficients[index];
+    }
+
+    /**
+     * Append a new distinct Term to the arrays, growing them if needed.
+     *
+     * @return its index
+     */
+    private int append(Monomial monomial, Term source, double numericalCoefficient) {
+        if (this.size == this.coefficients.length) {
+            int capacity = this.size * 2;
+            this.monomials = Arrays.copyOf(this.monomials, capacity);
+            this.sources = Arrays.copyOf(this.sources, capacity);
+            this.coefficients = Arrays.copyOf(this.coefficients, capacity);
+        }
+
+        this.monomials[this.size] = monomial;
+        this.sources[this.size] = source;
+        this.coefficients[this.size] = numericalCoefficient;
+        return this.size++;
+    }
+
+    /**
+     * Rebuild the table with a new size.
+     *
+     * @param tableSize The new size, a power of 2
+     */
+    private void rehash(int tableSize) {
+        this.table = new int[tableSize];
+        int mask = tableSize - 1;
+
+        for (int i = 0; i < this.size; i++) {
+            if (i == this.nullAtomsIndex) continue;
+
+            int slot = spread(this.monomials[i].hashCode()) & mask;
+            while (this.table[slot] != 0) slot = (slot + 1) & mask;
+            this.table[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Smallest power of 2 table that holds a number of Terms without going over the maximum load.
+     */
+    private static int tableSize(int terms) {
+        int size = Integer.highestOneBit((int) (terms / MAX_LOAD));
+        return size < terms / MAX_LOAD ? size * 2 : size;
+    }
+
+    /**
+     * Mix the high bits of a hash code into the low bits, which pick the slot.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
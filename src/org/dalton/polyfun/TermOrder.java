@@ -0,0 +1,233 @@
+package org.dalton.polyfun;
+
+/**
+ * The order of {@link Term#compareTo(Term)}, without building Strings. Terms are ordered by their sort key: their
+ * Atoms sorted and printed, e.g. "a_1^2b", compared ignoring case, with constants last. Comparing a key ignoring
+ * case is the same as comparing it with every char mapped through {@link #fold(char)}.
+ * <p>
+ * When the Atoms of a Term are already in order, which they are once reduced, sorting them doesn't change them,
+ * so the chars of the key are read straight from the Atoms: the letter, then "_" and the subscript unless it is
+ * -1, then "^" and the power unless it is 1, and nothing for an Atom with a power of 0. Other Terms fall back to
+ * building the key.
+ */
+final class TermOrder {
+    // Powers of 10, for the digits of ints.
+    private static final long[] POWERS_OF_10 = new long[11];
+
+    static {
+        POWERS_OF_10[0] = 1;
+
+        for (int i = 1; i < POWERS_OF_10.length; i++) {
+            POWERS_OF_10[i] = POWERS_OF_10[i - 1] * 10;
+        }
+    }
+
+    private TermOrder() {
+    }
+
+    /**
+     * Compare two Terms that are not constant by their sort keys, ignoring case.
+     *
+     * @param term The first Term
+     * @param that The second Term
+     * @return negative, zero or positive, with the same sign as comparing the sort keys with
+     * {@link String#compareToIgnoreCase(String)}, zero when they tie
+     */
+    static int compareAtoms(Term term, Term that) {
+        if (!isInOrder(term) || !isInOrder(that)) {
+            return term.getSortKey().compareToIgnoreCase(that.getSortKey());
+        }
+
+        int thisCount = term.getAtomCount(), thatCount = that.getAtomCount();
+        int i = 0, j = 0;
+        int thisOffset = 0, thatOffset = 0;
+        int thisLength = 0, thatLength = 0;
+
+        while (true) {
+            // Atoms that print the same can be skipped whole.
+            while (thisOffset == thisLength && thatOffset == thatLength && i < thisCount && j < thatCount
+                    && term.getKey(i) == that.getKey(j) && term.getPower(i) == that.getPower(j)) {
+                i++;
+                j++;
+            }
+
+            // Move on to the next Atom that prints something.
+            while (thisOffset == thisLength && i < thisCount) {
+                thisLength = length(term.getKey(i), term.getPower(i));
+                thisOffset = 0;
+                i++;
+            }
+
+            while (thatOffset == thatLength && j < thatCount) {
+                thatLength = length(that.getKey(j), that.getPower(j));
+                thatOffset = 0;
+                j++;
+            }
+
+            boolean thisDone = thisOffset == thisLength, thatDone = thatOffset == thatLength;
+            if (thisDone || thatDone) return (thisDone ? 0 : 1) - (thatDone ? 0 : 1);
+
+            char thisChar = charAt(term.getKey(i - 1), term.getPower(i - 1), thisOffset++);
+            char thatChar = charAt(that.getKey(j - 1), that.getPower(j - 1), thatOffset++);
+
+            if (thisChar != thatChar) {
+                int comparison = fold(thisChar) - fold(thatChar);
+                if (comparison != 0) return comparison;
+            }
+        }
+    }
+
+    /**
+     * Compare two Monomials stored as ranges of keys and powers, in key order with no power of 0 and no letters
+     * that are halves of surrogate pairs, by their sort keys, ignoring case. This is {@link #compareAtoms(Term,
+     * Term)} for the Atoms the keys and powers stand for.
+     *
+     * @param keys       The keys of the first Monomial
+     * @param powers     The powers of the first Monomial
+     * @param from       The index of its first key
+     * @param to         The index after its last key
+     * @param thatKeys   The keys of the second Monomial
+     * @param thatPowers The powers of the second Monomial
+     * @param thatFrom   The index of its first key
+     * @param thatTo     The index after its last key
+     * @return negative, zero or positive, zero when the sort keys tie
+     */
+    static int compareMonomials(long[] keys, int[] powers, int from, int to,
+                                long[] thatKeys, int[] thatPowers, int thatFrom, int thatTo) {
+        int i = from, j = thatFrom;
+
+        // Leading Atoms that print the same.
+        while (i < to && j < thatTo && keys[i] == thatKeys[j] && powers[i] == thatPowers[j]) {
+            i++;
+            j++;
+        }
+
+        int thisOffset = 0, thatOffset = 0;
+        int thisLength = i < to ? length(keys[i], powers[i]) : 0;
+        int thatLength = j < thatTo ? length(thatKeys[j], thatPowers[j]) : 0;
+
+        while (true) {
+            if (thisOffset == thisLength && ++i < to) {
+                thisLength = length(keys[i], powers[i]);
+                thisOffset = 0;
+            }
+
+            if (thatOffset == thatLength && ++j < thatTo) {
+                thatLength = length(thatKeys[j], thatPowers[j]);
+                thatOffset = 0;
+            }
+
+            boolean thisDone = thisOffset == thisLength, thatDone = thatOffset == thatLength;
+            if (thisDone || thatDone) return (thisDone ? 0 : 1) - (thatDone ? 0 : 1);
+
+            char thisChar = charAt(keys[i], powers[i], thisOffset++);
+            char thatChar = charAt(thatKeys[j], thatPowers[j], thatOffset++);
+
+            if (thisChar != thatChar) {
+                int comparison = fold(thisChar) - fold(thatChar);
+                if (comparison != 0) return comparison;
+            }
+        }
+    }
+
+    /**
+     * Compare two Terms as sorting puts them, with constants last and tied like each other.
+     *
+     * @param term The first Term
+     * @param that The second Term
+     * @return negative, zero or positive, zero when both are constant or their sort keys tie
+     */
+    static int compareSortKeys(Term term, Term that) {
+        boolean thisConstant = term.isConstantTerm(), thatConstant = that.isConstantTerm();
+
+        if (thisConstant) return thatConstant ? 0 : 1;
+        if (thatConstant) return -1;
+        return compareAtoms(term, that);
+    }
+
+    /**
+     * Check if the Atoms of a Term are in order with no two like Atoms, so sorting them doesn't change them, and
+     * have no letters that are halves of surrogate pairs, which compareToIgnoreCase(String) doesn't compare a
+     * char at a time.
+     */
+    private static boolean isInOrder(Term term) {
+        for (int i = 0; i < term.getAtomCount(); i++) {
+            if (Character.isSurrogate((char) (term.getKey(i) >>> 32))) return false;
+            if (i > 0 && term.getKey(i - 1) >= term.getKey(i)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * The number of chars an Atom prints as, from its key and power.
+     */
+    private static int length(long key, int power) {
+        if (power == 0) return 0;
+
+        int subscript = (int) key ^ Integer.MIN_VALUE;
+        int length = 1;
+        if (subscript != -1) length += 1 + digits(subscript);
+        if (power != 1) length += 1 + digits(power);
+
+        return length;
+    }
+
+    /**
+     * A char of an Atom as it prints, e.g. "a_12^3", from its key and power.
+     */
+    private static char charAt(long key, int power, int offset) {
+        if (offset == 0) return (char) (key >>> 32);
+        offset--;
+
+        int subscript = (int) key ^ Integer.MIN_VALUE;
+
+        if (subscript != -1) {
+            if (offset == 0) return '_';
+            offset--;
+
+            int digits = digits(subscript);
+            if (offset < digits) return digitAt(subscript, offset, digits);
+            offset -= digits;
+        }
+
+        if (offset == 0) return '^';
+        return digitAt(power, offset - 1, digits(power));
+    }
+
+    /**
+     * The number of chars an int prints as, including a minus sign.
+     */
+    private static int digits(int value) {
+        long magnitude = Math.abs((long) value);
+        int digits = 1;
+
+        while (digits < POWERS_OF_10.length && magnitude >= POWERS_OF_10[digits]) {
+            digits++;
+        }
+
+        return value < 0 ? digits + 1 : digits;
+    }
+
+    /**
+     * A char of an int as it prints.
+     */
+    private static char digitAt(int value, int offset, int digits) {
+        if (value < 0) {
+            if (offset == 0) return '-';
+            offset--;
+            digits--;
+        }
+
+        long magnitude = Math.abs((long) value);
+        return (char) ('0' + magnitude / POWERS_OF_10[digits - 1 - offset] % 10);
+    }
+
+    /**
+     * Map a char the way {@link String#compareToIgnoreCase(String)} does before comparing: to upper case, then
+     * to lower case.
+     */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
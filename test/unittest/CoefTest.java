@@ -574,4 +574,102 @@ public class CoefTest {
     public void isConstantCoef() {
         assertThat(coef.isConstantCoef(), is(false));
     }
+
+    @Test
+    public void tiedTermsKeepTheOrderTheyWereAddedIn() {
+        // b and B tie when sorted, since their sort keys are equal ignoring case.
+        Coef coef = new Coef(new Term[]{new Term('b'), new Term(2, new Atom[]{new Atom('B', -1, 1)})});
+        assertThat(coef.toString(), is("b+2.0B"));
+
+        // Reducing again leaves them in the same order.
+        assertThat(coef.isZero(), is(false));
+        assertThat(coef.toString(), is("b+2.0B"));
+        assertThat(coef.isConstantCoef(), is(false));
+        assertThat(coef.toString(), is("b+2.0B"));
+
+        assertThat(new Coef('b').plus(new Coef('B')).toString(), is("b+B"));
+        assertThat(new Coef('B').plus(new Coef('b')).toString(), is("B+b"));
+    }
+
+    @Test
+    public void tiedProductsKeepTheOrderTheyWereMadeIn() {
+        Coef aA = new Coef(new Term[]{new Term('a'), new Term('A')});
+        Coef bB = new Coef(new Term[]{new Term('b'), new Term('B')});
+
+        // ab, Ab and AB tie, and come out in the order the pairs are multiplied.
+        assertThat(aA.times(bB).toString(), is("ab+Ab+AB+Ba"));
+    }
+
+    @Test
+    public void isZeroAfterTermsChangedInPlace() {
+        Coef sum = new Coef(new Term[]{new Term('a'), new Term('b')});
+        assertThat(sum.isZero(), is(false));
+
+        // Change the reduced Terms without going through the Coef.
+        sum.getTerms()[0].setNumericalCoefficient(0);
+        sum.getTerms()[1].setNumericalCoefficient(0);
+        assertThat(sum.isZero(), is(true));
+    }
+
+    @Test
+    public void reduceAfterTermsReplacedInPlace() {
+        Coef sum = new Coef(new Term[]{new Term('a'), new Term('b')});
+        assertThat(sum.isConstantCoef(), is(false));
+
+        // Now two like Terms, which must be combined again.
+        sum.getTerms()[1] = new Term('a');
+        assertThat(sum.plus(sum).toString(), is("4.0a"));
+        assertThat(sum.times(sum).toString(), is("4.0a^2"));
+    }
+
+    @Test
+    public void parallelProductMatchesSequential() {
+        // Fractions, so the order like products are added in shows in the result.
+        Coef sum = new Coef(new Term[]{new Term(0.1), new Term(0.3, new Atom[]{new Atom('a', -1, 1)}),
+                new Term(0.7, new Atom[]{new Atom('b', -1, 1)}), new Term(1.1, new Atom[]{new Atom('c', 1, 1)}),
+                new Term(1.3, new Atom[]{new Atom('d', -1, 1)}), new Term(-1.7, new Atom[]{new Atom('e', -1, 1)})});
+        Coef small = sum;
+        Coef large = sum;
+
+        for (int i = 1; i < 6; i++) small = small.times(sum);
+        for (int i = 1; i < 8; i++) large = large.times(sum);
+
+        // Enough pairs of Terms to take several blocks.
+        assertThat(large.getTerms().length * small.getTerms().length > 1 << 18, is(true));
+        int threshold = Coef.getParallelThreshold();
+
+        try {
+            Coef.setParallelThreshold(Integer.MAX_VALUE);
+            String sequential = large.times(small).toString();
+            Coef.setParallelThreshold(1);
+            assertThat(large.times(small).toString(), is(sequential));
+        } finally {
+            Coef.setParallelThreshold(threshold);
+        }
+    }
+
+    @Test
+    public void productsDoNotShareAtoms() {
+        Coef ab = new Coef('a').times(new Coef('b'));
+        Coef same = new Coef('a').times(new Coef('b'));
+
+        ab.getTerms()[0].getAtoms()[1].setLetter('c');
+
+        assertThat(ab.toString(), is("ac"));
+        assertThat(same.toString(), is("ab"));
+    }
+
+    @Test
+    public void unlikeProducts() {
+        Coef ab = new Coef(new Term[]{new Term('a'), new Term(2.0, new Atom[]{new Atom('b')})});
+        Coef cd = new Coef(new Term[]{new Term('c'), new Term('d')});
+
+        // No letter in common, so no two products are like.
+        assertThat(ab.times(cd).toString(), is("ac+ad+2.0bc+2.0bd"));
+
+        // The same Coef with its Terms replaced in place now shares c and d, so like products are combined.
+        ab.getTerms()[0] = new Term('d');
+        ab.getTerms()[1] = new Term('c');
+        assertThat(ab.times(cd).toString(), is("c^2+2.0cd+d^2"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,280 @@
+package unittest;
+
+import org.dalton.polyfun.DensePolynomial;
+import org.dalton.polyfun.Polynomial;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class DensePolynomialTest {
+
+    private static final double[] P = {1, -3, 0, 2};
+    private static final double[] Q = {0.5, 0.25, -1.75};
+
+    @Test
+    public void arithmetic_CompareToPolyfunOld() {
+        polyfun.Polynomial oldP = new polyfun.Polynomial(P);
+        polyfun.Polynomial oldQ = new polyfun.Polynomial(Q);
+        DensePolynomial p = new DensePolynomial(P);
+        DensePolynomial q = new DensePolynomial(Q);
+
+        compareToOld(oldP.plus(oldQ), p.plus(q));
+        compareToOld(oldP.minus(oldQ), p.minus(q));
+        compareToOld(oldP.times(-2.5), p.times(-2.5));
+        compareToOld(oldP.times(oldQ), p.times(q));
+        compareToOld(oldQ.to(5), q.raiseTo(5));
+        compareToOld(oldP.of(oldQ), p.of(q));
+    }
+
+    @Test
+    public void arithmeticMatchesPolynomial() {
+        Polynomial polynomialP = new Polynomial(P);
+        Polynomial polynomialQ = new Polynomial(Q);
+        DensePolynomial p = DensePolynomial.from(polynomialP);
+        DensePolynomial q = DensePolynomial.from(polynomialQ);
+
+        assertThat(p.plus(q).toString(), is(polynomialP.plus(polynomialQ).toString()));
+        assertThat(q.minus(p).toString(), is(polynomialQ.minus(polynomialP).toString()));
+        assertThat(p.times(3).toString(), is(polynomialP.times(3).toString()));
+        assertThat(p.times(q).toString(), is(polynomialP.times(polynomialQ).toString()));
+        assertThat(q.raiseTo(9).toString(), is(polynomialQ.raiseTo(9).toString()));
+        assertThat(q.raiseTo(9, true).toString(), is(polynomialQ.raiseTo(9, true).toString()));
+        assertThat(p.of(q).toString(), is(polynomialP.of(polynomialQ).toString()));
+        assertThat(q.of(p).toString(), is(polynomialQ.of(polynomialP).toString()));
+    }
+
+    @Test
+    public void ofHighDegree() {
+        // From degree 8 up, composition uses Horner's scheme.
+        double[] outer = {1, -1, 0.5, 2, 0, -3, 0.25, 1, -0.75, 1.5};
+        DensePolynomial p = new DensePolynomial(outer);
+        DensePolynomial q = new DensePolynomial(Q);
+        Polynomial expected = new Polynomial(outer).of(new Polynomial(Q));
+
+        assertCoefficients(expected, p.of(q), 1e-9);
+
+        double[] buffer = p.of(q, new double[0]);
+        assertThat(buffer.length, is(19));
+        assertCoefficients(expected, new DensePolynomial(buffer), 1e-9);
+
+        // A long enough buffer is reused and cleared past the degree.
+        double[] longer = new double[25];
+        Arrays.fill(longer, 7);
+        assertSame(longer, p.of(q, longer));
+        assertThat(longer[19], is(0.0));
+        assertCoefficients(expected, new DensePolynomial(Arrays.copyOf(longer, 19)), 1e-9);
+    }
+
+    @Test
+    public void timesAboveKaratsubaThreshold() {
+        DensePolynomial p = new DensePolynomial(numbers(70, 1));
+        DensePolynomial q = new DensePolynomial(numbers(45, 2));
+        int threshold = Polynomial.getKaratsubaThreshold();
+        DensePolynomial product;
+        DensePolynomial square;
+
+        try {
+            Polynomial.setKaratsubaThreshold(Integer.MAX_VALUE);
+            product = p.times(q);
+            square = p.raiseTo(2);
+        } finally {
+            Polynomial.setKaratsubaThreshold(threshold);
+        }
+
+        assertArrayEquals(product.getCoefficients(), p.times(q).getCoefficients(), 1e-9);
+        assertArrayEquals(product.getCoefficients(), q.times(p).getCoefficients(), 1e-9);
+        assertArrayEquals(square.getCoefficients(), p.raiseTo(2, true).getCoefficients(), 1e-9);
+    }
+
+    @Test
+    public void fftWholeNumbersAreExact() {
+        double[] a = new double[300];
+        double[] b = new double[280];
+
+        for (int i = 0; i < a.length; i++) a[i] = (i * 37) % 201 - 100;
+        for (int i = 0; i < b.length; i++) b[i] = (i * 53) % 99 - 49;
+
+        DensePolynomial p = new DensePolynomial(a);
+        DensePolynomial q = new DensePolynomial(b);
+        assertTrue(DensePolynomial.getFftThreshold() <= b.length);
+
+        assertArrayEquals(withoutFft(p, q).getCoefficients(), p.times(q).getCoefficients(), 0);
+        assertArrayEquals(withoutFft(p, p).getCoefficients(), p.raiseTo(2, true).getCoefficients(), 0);
+
+        // The same through Polynomial.
+        Polynomial product = new Polynomial(a).times(new Polynomial(b));
+        assertArrayEquals(withoutFft(p, q).getCoefficients(), product.getCoefficientArray(), 0);
+    }
+
+    @Test
+    public void fftVerification() {
+        double[] a = new double[400];
+
+        for (int i = 0; i < a.length; i++) a[i] = (i * 31) % 1001 - 500;
+
+        DensePolynomial p = new DensePolynomial(a);
+        boolean verify = DensePolynomial.isFftVerification();
+        DensePolynomial product;
+
+        try {
+            // Throws if a sampled coefficient is outside the bound.
+            DensePolynomial.setFftVerification(true);
+            product = p.times(p);
+        } finally {
+            DensePolynomial.setFftVerification(verify);
+        }
+
+        assertArrayEquals(withoutFft(p, p).getCoefficients(), product.getCoefficients(), 0);
+    }
+
+    @Test
+    public void fftSkipsFractions() {
+        // Small coefficients next to a big one would be lost in the FFT's error bound.
+        double[] a = new double[300];
+
+        for (int i = 0; i < a.length; i++) a[i] = 0.001 * (i + 1);
+
+        a[299] = 1e9;
+        DensePolynomial p = new DensePolynomial(a);
+
+        for (DensePolynomial square : new DensePolynomial[]{p.times(p), p.raiseTo(2, true)}) {
+            assertThat(square.getCoefficientAt(0), is(0.001 * 0.001));
+            assertThat(square.getCoefficientAt(1), is(0.001 * 0.002 + 0.002 * 0.001));
+            assertThat(square.getCoefficientAt(598), is(1e18));
+        }
+
+        DensePolynomial q = new DensePolynomial(numbers(300, 4));
+        assertArrayEquals(withoutFft(p, q).getCoefficients(), p.times(q).getCoefficients(), 0);
+    }
+
+    @Test
+    public void nonFiniteCoefficients() {
+        // NaN and infinity only reach the coefficients they are multiplied into, past every threshold.
+        double[] a = new double[300];
+
+        for (int i = 0; i < a.length; i++) a[i] = i % 7;
+
+        a[5] = Double.NaN;
+        a[200] = Double.POSITIVE_INFINITY;
+        DensePolynomial p = new DensePolynomial(a);
+        DensePolynomial q = new DensePolynomial(numbers(280, 7));
+
+        for (DensePolynomial product : new DensePolynomial[]{p.times(p), p.raiseTo(2, true), p.times(q)}) {
+            assertEquals(0, product.getCoefficientAt(0), 0);
+            assertFalse(Double.isNaN(product.getCoefficientAt(4)));
+            assertTrue(Double.isNaN(product.getCoefficientAt(5)));
+            assertFalse(Double.isNaN(product.getCoefficientAt(product.getDegree())));
+        }
+
+        assertThat(p.times(p).getCoefficientAt(4), is(2 * (0.0 * 4 + 1 * 3) + 2.0 * 2));
+    }
+
+    @Test
+    public void fftFallsBackForBigWholeNumbers() {
+        // Too big for the FFT to round to the right whole numbers, so they are multiplied without it.
+        double[] a = new double[300];
+
+        for (int i = 0; i < a.length; i++) a[i] = (1L << 40) + i * 12345L;
+
+        DensePolynomial p = new DensePolynomial(a);
+
+        assertArrayEquals(withoutFft(p, p).getCoefficients(), p.times(p).getCoefficients(), 0);
+        assertArrayEquals(withoutFft(p, p).getCoefficients(), p.raiseTo(2, false).getCoefficients(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidFftThreshold() {
+        DensePolynomial.setFftThreshold(0);
+    }
+
+    @Test
+    public void toStringMatchesPolynomial() {
+        double[][] coefficients = {{0}, {5}, {0, 1}, {1, -3, 0, 2}, {-1, 0, 1}, {0, 0, -2.5}};
+
+        for (double[] numbers : coefficients) {
+            assertThat(new DensePolynomial(numbers).toString(), is(new Polynomial(numbers).toString()));
+        }
+    }
+
+    @Test
+    public void coefficients() {
+        double[] numbers = {1, -3, 0, 2};
+        DensePolynomial p = new DensePolynomial(numbers);
+
+        // The array is copied both ways.
+        numbers[0] = 9;
+        p.getCoefficients()[1] = 9;
+
+        assertThat(p.getDegree(), is(3));
+        assertThat(p.getCoefficientAt(0), is(1.0));
+        assertThat(p.getCoefficientAt(1), is(-3.0));
+        assertThat(p.getCoefficientAt(7), is(0.0));
+        assertThat(p.eval(2), is(11.0));
+        assertThat(p.toPolynomial().eval(2), is(11.0));
+
+        DensePolynomial zero = new DensePolynomial(new double[0]);
+        assertThat(zero.getDegree(), is(0));
+        assertThat(zero.eval(3), is(0.0));
+    }
+
+    @Test(expected = AssertionError.class)
+    public void fromNotPlottable() {
+        DensePolynomial.from(new Polynomial('a', 2));
+    }
+
+    /**
+     * Multiply two DensePolynomials with the FFT turned off.
+     */
+    private static DensePolynomial withoutFft(DensePolynomial p, DensePolynomial q) {
+        int threshold = DensePolynomial.getFftThreshold();
+
+        try {
+            DensePolynomial.setFftThreshold(Integer.MAX_VALUE);
+            return p.times(q);
+        } finally {
+            DensePolynomial.setFftThreshold(threshold);
+        }
+    }
+
+    /**
+     * Make some numbers between -1 and 1 that aren't whole.
+     */
+    static double[] numbers(int length, int seed) {
+        double[] numbers = new double[length];
+
+        for (int i = 0; i < length; i++) {
+            numbers[i] = Math.sin(seed * 7919.0 + i * 1.37);
+        }
+
+        return numbers;
+    }
+
+    /**
+     * Check a DensePolynomial has the coefficients of a polyfun.Polynomial, up to rounding.
+     */
+    private static void compareToOld(polyfun.Polynomial expected, DensePolynomial actual) {
+        polyfun.Coef[] coefs = expected.getCoefficients();
+        assertThat(actual.getDegree(), is(coefs.length - 1));
+
+        for (int i = 0; i < coefs.length; i++) {
+            polyfun.Term[] terms = coefs[i].getTerms();
+            double number = terms.length == 0 ? 0 : terms[0].getTermDouble();
+
+            assertEquals(number, actual.getCoefficientAt(i), 1e-9);
+        }
+    }
+
+    /**
+     * Check a DensePolynomial has the coefficients of a plottable Polynomial, up to a tolerance.
+     */
+    static void assertCoefficients(Polynomial expected, DensePolynomial actual, double tolerance) {
+        assertThat(actual.getDegree(), is(expected.getDegree()));
+
+        for (int i = 0; i <= expected.getDegree(); i++) {
+            assertEquals(expected.getCoefAt(i).getConstantAt0Term(), actual.getCoefficientAt(i), tolerance);
+        }
+    }
+}
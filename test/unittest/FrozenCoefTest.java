@@ -0,0 +1,79 @@
+package unittest;
+
+import org.dalton.polyfun.Atom;
+import org.dalton.polyfun.Coef;
+import org.dalton.polyfun.FrozenCoef;
+import org.dalton.polyfun.Term;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class FrozenCoefTest {
+
+    /**
+     * 2(a_1)^3b - 7 + b + 4c^2, with b given twice so freezing has to reduce it.
+     */
+    private static Coef coef() {
+        return new Coef(new Term[]{
+                new Term(2, new Atom[]{new Atom('a', 1, 3), new Atom('b', -1, 1)}),
+                new Term(-7),
+                new Term('b'),
+                new Term(4, new Atom[]{new Atom('c', -1, 2)}),
+                new Term(1, new Atom[]{new Atom('b', -1, 1)})});
+    }
+
+    @Test
+    public void freezeThawRoundTrip() {
+        Coef coef = coef();
+        FrozenCoef frozen = coef.freeze();
+        Coef thawed = frozen.thaw();
+
+        assertThat(frozen.getTermCount(), is(4));
+        assertThat(frozen.toString(), is(coef.toString()));
+        assertThat(thawed.toString(), is(coef.toString()));
+        assertThat(thawed.getTerms().length, is(coef.getTerms().length));
+
+        assertEquals(frozen, thawed.freeze());
+        assertThat(thawed.freeze().hashCode(), is(frozen.hashCode()));
+        assertNotEquals(frozen, new Coef('b').freeze());
+    }
+
+    @Test
+    public void thawIsIndependent() {
+        FrozenCoef frozen = new Coef(new Term[]{new Term('a'), new Term(2)}).freeze();
+        Coef thawed = frozen.thaw();
+        Coef again = frozen.thaw();
+
+        thawed.getTerms()[0].getAtoms()[0].setLetter('c');
+        thawed.getTerms()[1].setNumericalCoefficient(5);
+
+        assertThat(thawed.toString(), is("c+5.0"));
+        assertThat(again.toString(), is("a+2.0"));
+        assertThat(frozen.toString(), is("a+2.0"));
+    }
+
+    @Test
+    public void timesMatchesCoef() {
+        Coef coef = coef();
+        Coef other = new Coef(new Term[]{new Term('b'), new Term(0.5), new Term('B')});
+
+        assertThat(coef.freeze().times(other.freeze()).toString(), is(coef.times(other).toString()));
+        assertThat(other.freeze().times(other.freeze()).toString(), is(other.times(other).toString()));
+        assertEquals(coef.times(other).freeze(), coef.freeze().times(other.freeze()));
+    }
+
+    @Test
+    public void zeroAndConstant() {
+        FrozenCoef zero = new Coef(0.0).freeze();
+        FrozenCoef constant = new Coef(3).freeze();
+
+        assertThat(zero.isZero(), is(true));
+        assertThat(zero.getTermCount(), is(0));
+        assertThat(zero.thaw().isZero(), is(true));
+        assertThat(constant.isConstantCoef(), is(true));
+        assertThat(constant.isZero(), is(false));
+        assertThat(new Coef('a').freeze().isConstantCoef(), is(false));
+        assertThat(zero.times(constant).isZero(), is(true));
+    }
+}
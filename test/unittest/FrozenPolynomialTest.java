@@ -0,0 +1,94 @@
+package unittest;
+
+import org.dalton.polyfun.Atom;
+import org.dalton.polyfun.Coef;
+import org.dalton.polyfun.FrozenPolynomial;
+import org.dalton.polyfun.Polynomial;
+import org.dalton.polyfun.Term;
+import org.junit.Test;
+
+import unittest.testlib.*;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class FrozenPolynomialTest {
+
+    @Test
+    public void freezeThaw_CompareToPolyfunOld() {
+        PolyPair polyPair = new PolyPair(new double[]{1, -3, 0.5, 2});
+        PolynomialTest.comparePolynomials(polyPair.polynomialOrig, polyPair.polynomialRefactored.freeze().thaw());
+
+        polyfun.Polynomial oldPoly = new polyfun.Polynomial(new double[]{0.5, -1.25}).to(4);
+        Polynomial newPoly = new Polynomial(new double[]{0.5, -1.25}).to(4);
+        PolynomialTest.comparePolynomials(oldPoly, newPoly.freeze().thaw());
+    }
+
+    @Test
+    public void freezeThawRoundTrip() {
+        Polynomial polynomial = new Polynomial('a', 2).times(new Polynomial('b', 1)).addTangent();
+        FrozenPolynomial frozen = polynomial.freeze();
+        Polynomial thawed = frozen.thaw();
+
+        assertThat(frozen.getDegree(), is(polynomial.getDegree()));
+        assertThat(frozen.toString(), is(polynomial.toString()));
+        assertThat(thawed.toString(), is(polynomial.toString()));
+        PolynomialTest.comparePolynomials(thawed, polynomial);
+
+        // Freezing the thawed Polynomial again gives an equal one.
+        assertEquals(frozen, thawed.freeze());
+        assertThat(thawed.freeze().hashCode(), is(frozen.hashCode()));
+
+        for (int i = 0; i <= frozen.getDegree(); i++) {
+            assertThat(frozen.getCoefAt(i).toString(), is(polynomial.getCoefAt(i).toString()));
+        }
+    }
+
+    @Test
+    public void thawIsIndependent() {
+        Polynomial polynomial = new Polynomial('a', 1);
+        FrozenPolynomial frozen = polynomial.freeze();
+        Polynomial thawed = frozen.thaw();
+        Polynomial again = frozen.thaw();
+
+        // Changing the original or a thawed copy in place changes nothing else.
+        polynomial.getCoefAt(0).getTerms()[0].getAtoms()[0].setPower(3);
+        thawed.getCoefAt(1).getTerms()[0].getAtoms()[0].setLetter('c');
+
+        assertThat(thawed.toString(), is("(c_1)X+a_0"));
+        assertThat(again.toString(), is("(a_1)X+a_0"));
+        assertThat(frozen.toString(), is("(a_1)X+a_0"));
+        assertNotEquals(frozen, thawed.freeze());
+    }
+
+    @Test
+    public void eval() {
+        Polynomial polynomial = new Polynomial(new double[]{0.5, 0.25, -1.75, 3.125});
+        FrozenPolynomial frozen = polynomial.freeze();
+
+        assertThat(frozen.isPlottable(), is(true));
+
+        for (double x : new double[]{-2.5, 0, 0.3, 4}) {
+            assertThat(frozen.eval(x), is(polynomial.eval(x)));
+        }
+    }
+
+    @Test
+    public void isPlottableWithZeroCoefs() {
+        Coef symbolicZero = new Coef(new Term(0, new Atom[]{new Atom('a', -1, 1)}));
+        Polynomial polynomial = new Polynomial(new Coef[]{new Coef(1), symbolicZero, new Coef(new Term[0]), new Coef(2)});
+        FrozenPolynomial frozen = polynomial.freeze();
+
+        assertThat(frozen.isPlottable(), is(true));
+        assertThat(frozen.eval(2), is(polynomial.eval(2)));
+        assertThat(frozen.toString(), is(polynomial.toString()));
+    }
+
+    @Test(expected = AssertionError.class)
+    public void evalNotPlottable() {
+        FrozenPolynomial frozen = new Polynomial('a', 2).freeze();
+
+        assertThat(frozen.isPlottable(), is(false));
+        frozen.eval(1);
+    }
+}
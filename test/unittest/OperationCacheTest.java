@@ -0,0 +1,173 @@
+package unittest;
+
+import org.dalton.polyfun.Atom;
+import org.dalton.polyfun.Coef;
+import org.dalton.polyfun.OperationCache;
+import org.dalton.polyfun.Polynomial;
+import org.dalton.polyfun.Term;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.Supplier;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class OperationCacheTest {
+
+    private long maximumWeight;
+
+    @Before
+    public void setUp() {
+        this.maximumWeight = OperationCache.getMaximumWeight();
+        OperationCache.clear();
+        OperationCache.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        OperationCache.setEnabled(false);
+        OperationCache.setMaximumWeight(this.maximumWeight);
+        OperationCache.clear();
+    }
+
+    @Test
+    public void timesHit() {
+        String expected = uncached(() -> new Polynomial('a', 2).times(new Polynomial('b', 1)));
+
+        // Only the product of the Polynomials is cached, not the products of their Coefs.
+        Polynomial product = new Polynomial('a', 2).times(new Polynomial('b', 1));
+        assertThat(OperationCache.getMissCount(), is(1L));
+        assertThat(OperationCache.getSize(), is(1));
+
+        // Different objects with the same contents: one hit, and nothing else is computed.
+        Polynomial same = new Polynomial('a', 2).times(new Polynomial('b', 1));
+        assertThat(OperationCache.getHitCount(), is(1L));
+        assertThat(OperationCache.getMissCount(), is(1L));
+
+        assertThat(product.toString(), is(expected));
+        assertThat(same.toString(), is(expected));
+        assertNotSame(product, same);
+    }
+
+    @Test
+    public void coefTimesHit() {
+        Coef coef = new Coef(new Term[]{new Term('a'), new Term(2)});
+        String expected = uncached(() -> coef.times(new Coef('b')));
+
+        coef.times(new Coef('b'));
+        Coef same = coef.times(new Coef('b'));
+
+        assertThat(OperationCache.getMissCount(), is(1L));
+        assertThat(OperationCache.getHitCount(), is(1L));
+        assertThat(same.toString(), is(expected));
+    }
+
+    @Test
+    public void ofAndRaiseToHit() {
+        Polynomial outer = new Polynomial('a', 2);
+        Polynomial inner = new Polynomial(new double[]{1, 2});
+        String composition = uncached(() -> outer.of(inner));
+        String power = uncached(() -> outer.raiseTo(5));
+
+        outer.of(inner);
+        long hits = OperationCache.getHitCount();
+        assertThat(outer.of(inner).toString(), is(composition));
+        assertThat(OperationCache.getHitCount(), is(hits + 1));
+
+        outer.raiseTo(5);
+        hits = OperationCache.getHitCount();
+        assertThat(outer.raiseTo(5).toString(), is(power));
+        assertThat(OperationCache.getHitCount(), is(hits + 1));
+    }
+
+    @Test
+    public void keyedByContents() {
+        Polynomial polynomial = new Polynomial('a', 1);
+        String before = polynomial.times(polynomial).toString();
+
+        // Change an operand in place, so it no longer matches the cached key.
+        polynomial.getCoefAt(1).getTerms()[0].getAtoms()[0].setLetter('c');
+        String expected = uncached(() -> polynomial.times(polynomial));
+        long misses = OperationCache.getMissCount();
+
+        assertThat(polynomial.times(polynomial).toString(), is(expected));
+        assertThat(expected.equals(before), is(false));
+        assertTrue(OperationCache.getMissCount() > misses);
+    }
+
+    @Test
+    public void resultsAreCopies() {
+        Polynomial polynomial = new Polynomial('a', 1);
+        Polynomial product = polynomial.times(polynomial);
+        String expected = product.toString();
+
+        // Change the first result and a cached copy, in place.
+        product.getCoefAt(2).getTerms()[0].setNumericalCoefficient(9);
+        long hits = OperationCache.getHitCount();
+        Polynomial hit = polynomial.times(polynomial);
+        assertThat(hit.toString(), is(expected));
+
+        Atom atom = hit.getCoefAt(0).getTerms()[0].getAtoms()[0];
+        atom.setPower(7);
+        hit.getCoefAt(1).setTerms(new Term(3));
+
+        assertThat(polynomial.times(polynomial).toString(), is(expected));
+        assertThat(OperationCache.getHitCount(), is(hits + 2));
+    }
+
+    @Test
+    public void disabled() {
+        OperationCache.setEnabled(false);
+        Polynomial polynomial = new Polynomial('a', 1);
+
+        polynomial.times(polynomial);
+        polynomial.times(polynomial);
+
+        assertThat(OperationCache.getSize(), is(0));
+        assertThat(OperationCache.getHitCount(), is(0L));
+        assertThat(OperationCache.getMissCount(), is(0L));
+    }
+
+    @Test
+    public void eviction() {
+        OperationCache.setMaximumWeight(16 * 40);
+
+        for (int i = 0; i < 200; i++) {
+            Polynomial polynomial = new Polynomial(new Coef[]{new Coef(new Term(i)), new Coef('a'), new Coef('b')});
+            polynomial.times(polynomial);
+
+            assertTrue(OperationCache.getWeight() <= OperationCache.getMaximumWeight());
+        }
+
+        int size = OperationCache.getSize();
+        assertTrue(size > 0 && size < OperationCache.getMissCount());
+
+        // Lowering the maximum drops entries right away.
+        OperationCache.setMaximumWeight(1);
+        assertThat(OperationCache.getSize(), is(0));
+        assertThat(OperationCache.getWeight(), is(0L));
+
+        OperationCache.clear();
+        assertThat(OperationCache.getMissCount(), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaximumWeight() {
+        OperationCache.setMaximumWeight(0);
+    }
+
+    /**
+     * Run an operation with the cache off, giving its result as a String.
+     */
+    private static String uncached(Supplier<Object> operation) {
+        OperationCache.setEnabled(false);
+
+        try {
+            return operation.get().toString();
+        } finally {
+            OperationCache.setEnabled(true);
+        }
+    }
+}
@@ -11,6 +11,11 @@ import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleUnaryOperator;
 
 import unittest.testlib.*;
 
@@ -784,6 +789,332 @@ public class PolynomialTest {
         assertThat(coefs[3], is(2.0));
     }
 
+    @Test
+    public void evalSeesCoefsChangedInPlace() {
+        Polynomial polynomial = new Polynomial(new double[]{1, 2});
+        assertThat(polynomial.eval(1), is(3.0));
+
+        // Change the Coefs without the setters, after they have been evaluated once.
+        polynomial.getCoefs()[1] = new Coef(5);
+        assertThat(polynomial.eval(1), is(6.0));
+
+        polynomial.getCoefAt(0).setTerms(new Term(4));
+        assertThat(polynomial.eval(1), is(9.0));
+
+        polynomial.getCoefs()[1] = new Coef('a');
+        assertThat(polynomial.isPlottable(), is(false));
+    }
+
+    @Test
+    public void evalSeesCoefArrayChangedAfterConstruction() {
+        Coef[] coefs = new Coef[]{new Coef(1), new Coef(2)};
+        Polynomial polynomial = new Polynomial(coefs);
+        assertThat(polynomial.eval(2), is(5.0));
+
+        coefs[0] = new Coef(3);
+        assertThat(polynomial.eval(2), is(7.0));
+    }
+
+    @Test
+    public void isPlottableWithZeroCoefs_CompareToPolyfunOld() {
+        double[] coefficients = {1, 0, 2};
+        PolyPair polyPair = new PolyPair(coefficients);
+        assertThat(polyPair.polynomialRefactored.isPlottable(), is(polyPair.polynomialOrig.isPlottable()));
+
+        // Symbolic Coefs that cancel out are zero, so they count as constant.
+        polyfun.Polynomial oldLetters = new polyfun.Polynomial('a', 1);
+        Polynomial newLetters = new Polynomial('a', 1);
+        polyfun.Polynomial oldPoly = oldLetters.minus(oldLetters).plus(new polyfun.Polynomial(coefficients));
+        Polynomial newPoly = newLetters.minus(newLetters).plus(new Polynomial(coefficients));
+
+        assertThat(oldPoly.isPlottable(), is(true));
+        assertThat(newPoly.isPlottable(), is(true));
+        assertThat(newPoly.eval(3), is(oldPoly.evaluate(3).getTerms()[0].getTermDouble()));
+    }
+
+    @Test
+    public void isPlottableWithZeroCoefs() {
+        Coef symbolicZero = new Coef(new Term(0, new Atom[]{new Atom('a', -1, 1)}));
+        Coef[] zeros = {new Coef(0.0), new Coef(new Term[0]), symbolicZero};
+
+        for (Coef zero : zeros) {
+            Polynomial polynomial = new Polynomial(new Coef[]{new Coef(1), zero, new Coef(2)});
+
+            assertThat(polynomial.isPlottable(), is(true));
+            assertThat(polynomial.eval(3), is(19.0));
+        }
+
+        // A Coef with letters changed to zero in place.
+        Polynomial polynomial = new Polynomial('a', 1);
+        assertThat(polynomial.isPlottable(), is(false));
+
+        polynomial.getCoefAt(1).setTerms(new Term(0));
+        polynomial.getCoefAt(0).setTerms(new Term(4));
+        assertThat(polynomial.isPlottable(), is(true));
+        assertThat(polynomial.eval(3), is(4.0));
+    }
+
+    @Test
+    public void evalHorner_CompareToPolyfunOld() {
+        double[][] coefficients = {{7}, {1, -3, 0, 2}, {0.5, 0.25, -1.75, 3.125, -0.0625}, {-2, 0, 0, 0, 0, 1.5}};
+        double[] xs = {-2.5, -1, 0, 0.75, 3};
+
+        for (double[] numbers : coefficients) {
+            PolyPair polyPair = new PolyPair(numbers);
+
+            for (double x : xs) {
+                double oldResult = polyPair.polynomialOrig.evaluate(x).getTerms()[0].getTermDouble();
+                assertEquals(oldResult, polyPair.polynomialRefactored.eval(x), 1e-12 * Math.max(1, Math.abs(oldResult)));
+            }
+        }
+    }
+
+    @Test
+    public void evalArray_CompareToPolyfunOld() {
+        double[] coefficients = {1, -3, 0, 2};
+        PolyPair polyPair = new PolyPair(coefficients);
+        double[] xs = {-2, -0.5, 0, 1, 3};
+        double[] out = new double[xs.length];
+
+        polyPair.polynomialRefactored.eval(xs, out);
+
+        for (int i = 0; i < xs.length; i++) {
+            assertThat(out[i], is(polyPair.polynomialOrig.evaluate(xs[i]).getTerms()[0].getTermDouble()));
+        }
+    }
+
+    @Test
+    public void evalArrayRange() {
+        Polynomial polynomial = new Polynomial(new double[]{0.5, 0.25, -1.75, 3.125});
+        double[] xs = {9, 9, -1.5, 0.3, 2.7, 9};
+        double[] out = {-1, -1, -1, -1, -1};
+
+        polynomial.eval(xs, 2, out, 1, 3);
+
+        assertThat(out[0], is(-1.0));
+        assertThat(out[1], is(polynomial.eval(-1.5)));
+        assertThat(out[2], is(polynomial.eval(0.3)));
+        assertThat(out[3], is(polynomial.eval(2.7)));
+        assertThat(out[4], is(-1.0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void evalArrayRangeOutOfBounds() {
+        Polynomial polynomial = new Polynomial(new double[]{1, 2});
+        polynomial.eval(new double[4], 2, new double[4], 0, 3);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void evalArrayNotPlottable() {
+        Polynomial polynomial = new Polynomial('a', 2);
+        polynomial.eval(new double[]{1, 2}, new double[2]);
+    }
+
+    @Test
+    public void evalDoubleBuffer() {
+        Polynomial polynomial = new Polynomial(new double[]{1, -3, 0, 2});
+
+        // Heap buffers, from their positions.
+        DoubleBuffer xs = DoubleBuffer.wrap(new double[]{7, 1.5, -2});
+        DoubleBuffer out = DoubleBuffer.allocate(4);
+        xs.position(1);
+        out.position(1);
+
+        polynomial.eval(xs, out);
+
+        assertThat(xs.position(), is(3));
+        assertThat(out.position(), is(3));
+        assertThat(out.get(1), is(polynomial.eval(1.5)));
+        assertThat(out.get(2), is(polynomial.eval(-2)));
+
+        // Direct buffers, longer than one block.
+        int length = 2500;
+        DoubleBuffer directXs = ByteBuffer.allocateDirect(8 * length).asDoubleBuffer();
+        DoubleBuffer directOut = ByteBuffer.allocateDirect(8 * length).asDoubleBuffer();
+
+        for (int i = 0; i < length; i++) directXs.put(i, i / 100.0);
+
+        polynomial.eval(directXs, directOut);
+
+        assertThat(directXs.hasRemaining(), is(false));
+        assertThat(directOut.hasRemaining(), is(false));
+
+        for (int i = 0; i < length; i++) {
+            assertThat(directOut.get(i), is(polynomial.eval(i / 100.0)));
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void evalDoubleBufferTooSmall() {
+        Polynomial polynomial = new Polynomial(new double[]{1, 2});
+        polynomial.eval(DoubleBuffer.allocate(3), DoubleBuffer.allocate(2));
+    }
+
+    @Test
+    public void evalParallelMatchesEval() {
+        Polynomial polynomial = new Polynomial(new double[]{0.5, 0.25, -1.75, 3.125, -0.0625});
+        double[] xs = new double[50000];
+
+        for (int i = 0; i < xs.length; i++) xs[i] = (i - 25000) / 1000.0;
+
+        double[] expected = new double[xs.length];
+        polynomial.eval(xs, expected);
+
+        double[] common = new double[xs.length];
+        polynomial.evalParallel(xs, common);
+        assertArrayEquals(expected, common, 0);
+
+        // Small pieces in a pool of our own.
+        ForkJoinPool pool = new ForkJoinPool(3);
+
+        try {
+            double[] pieces = new double[xs.length];
+            polynomial.evalParallel(xs, pieces, 7, pool);
+            assertArrayEquals(expected, pieces, 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void evalParallelLongerOut() {
+        Polynomial polynomial = new Polynomial(new double[]{1, 2});
+        double[] out = {-1, -1, -1};
+
+        polynomial.evalParallel(new double[]{1, 2}, out, 1, ForkJoinPool.commonPool());
+
+        assertArrayEquals(new double[]{3, 5, -1}, out, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void evalParallelInvalidGranularity() {
+        Polynomial polynomial = new Polynomial(new double[]{1, 2});
+        polynomial.evalParallel(new double[4], new double[4], 0, ForkJoinPool.commonPool());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void evalParallelOutTooShort() {
+        Polynomial polynomial = new Polynomial(new double[]{1, 2});
+        polynomial.evalParallel(new double[4], new double[3], 1, ForkJoinPool.commonPool());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void evalParallelNotPlottable() {
+        Polynomial polynomial = new Polynomial('a', 2);
+        polynomial.evalParallel(new double[100], new double[100], 1, ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void compileMatchesEval() {
+        double[] xs = {-2.5, -1, -0.3, 0, 0.7, 1, 4.2};
+
+        // Every unrolled degree and a few past them.
+        for (int degree = 0; degree <= 10; degree++) {
+            double[] coefficients = new double[degree + 1];
+
+            for (int i = 0; i <= degree; i++) coefficients[i] = (i % 3 - 1) * 1.25 + i / 8.0;
+
+            Polynomial polynomial = new Polynomial(coefficients);
+            DoubleUnaryOperator function = polynomial.compile();
+
+            for (double x : xs) {
+                assertThat(function.applyAsDouble(x), is(polynomial.eval(x)));
+            }
+        }
+    }
+
+    @Test
+    public void compileSameCoefficients() {
+        DoubleUnaryOperator function = new Polynomial(new double[]{1, -3, 0, 2}).compile();
+
+        assertSame(function, new Polynomial(new double[]{1, -3, 0, 2}).compile());
+        assertNotSame(function, new Polynomial(new double[]{1, -3, 0, 3}).compile());
+    }
+
+    @Test
+    public void compileKeepsCoefficients() {
+        Polynomial polynomial = new Polynomial(new double[]{1, 2});
+        DoubleUnaryOperator function = polynomial.compile();
+
+        polynomial.getCoefAt(1).setTerms(new Term(5));
+
+        assertThat(function.applyAsDouble(2), is(5.0));
+        assertThat(polynomial.compile().applyAsDouble(2), is(11.0));
+    }
+
+    @Test(expected = AssertionError.class)
+    public void compileNotPlottable() {
+        new Polynomial('a', 2).compile();
+    }
+
+    @Test
+    public void arithmeticSeesCoefsChangedInPlace() {
+        Polynomial polynomial = new Polynomial(new double[]{1, 2});
+        assertThat(polynomial.plus(polynomial).toString(), is("(4.0)X+2.0"));
+
+        // No longer plottable, so it must not take the numerical path.
+        polynomial.getCoefs()[1] = new Coef('a');
+        assertThat(polynomial.plus(polynomial).toString(), is("(2.0a)X+2.0"));
+        assertThat(polynomial.minus(polynomial).toString(), is(""));
+        assertThat(polynomial.times(polynomial).toString(), is("(a^2)X^2+(2.0a)X+1.0"));
+        assertThat(polynomial.times(2.0).toString(), is("(2.0a)X+2.0"));
+        assertThat(polynomial.raiseTo(2).toString(), is("(a^2)X^2+(2.0a)X+1.0"));
+        assertThat(polynomial.of(polynomial).toString(), is("(a^2)X+a+1.0"));
+    }
+
+    @Test
+    public void toKeepsTiedTermsInTheOrderOfRepeatedMultiplication() {
+        // X+B+b, where B and b tie when sorted.
+        Coef tied = new Coef(new Term[]{new Term('B'), new Term('b')});
+        Polynomial polynomial = new Polynomial(new Coef[]{tied, new Coef(1)});
+
+        assertThat(polynomial.to(2).toString(), is("X^2+(2.0B+2.0b)X+B^2+b^2+2.0Bb"));
+
+        // Below and above the power where squaring takes over.
+        for (int power : new int[]{3, 9}) {
+            Polynomial product = new Polynomial(1.0);
+
+            for (int i = 0; i < power; i++) {
+                product = polynomial.times(product);
+            }
+
+            assertThat(polynomial.to(power).toString(), is(product.toString()));
+            assertThat(polynomial.raiseTo(power).toString(), is(product.toString()));
+        }
+    }
+
+    @Test
+    public void powersSeeCoefsChangedInPlace() {
+        // aX + 1, whose lowest powers are kept after raising it.
+        Polynomial polynomial = new Polynomial(new Coef[]{new Coef(1), new Coef('a')});
+        assertThat(polynomial.raiseTo(2).toString(), is("(a^2)X^2+(2.0a)X+1.0"));
+
+        polynomial.getCoefs()[1] = new Coef('b');
+        assertThat(polynomial.raiseTo(2).toString(), is("(b^2)X^2+(2.0b)X+1.0"));
+
+        polynomial.getCoefAt(0).setTerms(new Term('c'));
+        assertThat(polynomial.raiseTo(2).toString(), is("(b^2)X^2+(2.0bc)X+c^2"));
+
+        Polynomial outer = new Polynomial(new double[]{0, 0, 1});
+        assertThat(outer.of(polynomial).toString(), is("(b^2)X^2+(2.0bc)X+c^2"));
+    }
+
+    @Test
+    public void lettersDoNotShareAtoms() {
+        Polynomial polynomial = new Polynomial('a', 2);
+        Polynomial same = new Polynomial('a', 2);
+
+        polynomial.getCoefAt(1).getTerms()[0].getAtoms()[0].setLetter('c');
+
+        assertThat(polynomial.getCoefAt(1).toString(), is("c_1"));
+        assertThat(same.toString(), is("(a_2)X^2+(a_1)X+a_0"));
+
+        Polynomial tangent = new Polynomial(1.0).addTangent();
+        tangent.getCoefAt(1).getTerms()[0].getAtoms()[0].setPower(3);
+
+        assertThat(new Polynomial(1.0).addTangent().toString(), is("(m)X+b+1.0"));
+    }
+
 
     public static void comparePolynomials(polyfun.Polynomial oldPoly, Polynomial newPoly) {
         // Compare number of coefficients.
@@ -0,0 +1,144 @@
+package unittest;
+
+import org.dalton.polyfun.DensePolynomial;
+import org.dalton.polyfun.Polynomial;
+import org.dalton.polyfun.SparsePolynomial;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class SparsePolynomialTest {
+
+    private static final double[] P = {1, -3, 0, 2};
+    private static final double[] Q = {0.5, 0, 0, 0, 0, 0, -1.75};
+
+    @Test
+    public void constructor() {
+        // Out of order, with a repeated exponent and zero terms.
+        SparsePolynomial polynomial = new SparsePolynomial(new int[]{100000, 0, 7, 2, 7, 5},
+                new double[]{1, 3, 2, 0, -2, 4});
+
+        assertArrayEquals(new int[]{0, 5, 100000}, polynomial.getExponents());
+        assertArrayEquals(new double[]{3, 4, 1}, polynomial.getCoefficients(), 0);
+        assertThat(polynomial.getDegree(), is(100000));
+        assertThat(polynomial.getTermCount(), is(3));
+        assertThat(polynomial.getCoefficientAt(5), is(4.0));
+        assertThat(polynomial.getCoefficientAt(7), is(0.0));
+        assertThat(polynomial.toString(), is("X^100000+(4.0)X^5+3.0"));
+
+        SparsePolynomial zero = new SparsePolynomial(new int[0], new double[0]);
+        assertThat(zero.getDegree(), is(0));
+        assertThat(zero.getFillRatio(), is(0.0));
+        assertThat(zero.eval(2), is(0.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorDifferentLengths() {
+        new SparsePolynomial(new int[]{1, 2}, new double[]{1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorNegativeExponent() {
+        new SparsePolynomial(2, -1);
+    }
+
+    @Test
+    public void arithmetic_CompareToPolyfunOld() {
+        polyfun.Polynomial oldP = new polyfun.Polynomial(P);
+        polyfun.Polynomial oldQ = new polyfun.Polynomial(Q);
+        SparsePolynomial p = SparsePolynomial.from(new Polynomial(P));
+        SparsePolynomial q = SparsePolynomial.from(new Polynomial(Q));
+
+        compareToOld(oldP.plus(oldQ), p.plus(q));
+        compareToOld(oldP.times(-2.5), p.times(-2.5));
+        compareToOld(oldP.times(oldQ), p.times(q));
+        compareToOld(oldQ.times(oldQ), q.times(q));
+        compareToOld(oldQ.to(4), q.raiseTo(4));
+        compareToOld(oldP.of(oldQ), p.of(q));
+        compareToOld(oldQ.of(oldP), q.of(p));
+    }
+
+    @Test
+    public void arithmeticMatchesPolynomial() {
+        Polynomial polynomialP = new Polynomial(P);
+        Polynomial polynomialQ = new Polynomial(Q);
+        SparsePolynomial p = SparsePolynomial.from(polynomialP);
+        SparsePolynomial q = SparsePolynomial.from(polynomialQ);
+
+        assertThat(p.plus(q).toString(), is(polynomialP.plus(polynomialQ).toString()));
+        assertThat(p.times(3).toString(), is(polynomialP.times(3).toString()));
+        assertThat(p.times(q).toString(), is(polynomialP.times(polynomialQ).toString()));
+        assertThat(p.raiseTo(5).toString(), is(polynomialP.raiseTo(5).toString()));
+        assertThat(p.toPolynomial().toString(), is(polynomialP.toString()));
+        assertThat(q.toDense().toString(), is(polynomialQ.toString()));
+        assertThat(SparsePolynomial.from(new DensePolynomial(Q)).toString(), is(polynomialQ.toString()));
+
+        for (double x : new double[]{-1.5, 0, 0.5, 2}) {
+            assertEquals(polynomialQ.eval(x), q.eval(x), 1e-12);
+            assertEquals(polynomialP.of(polynomialQ).eval(x), p.of(q).eval(x), 1e-9);
+        }
+    }
+
+    @Test
+    public void highDegree() {
+        // (x^100000 + 1)^3 = x^300000 + 3x^200000 + 3x^100000 + 1
+        SparsePolynomial polynomial = new SparsePolynomial(new int[]{0, 100000}, new double[]{1, 1});
+        SparsePolynomial cube = polynomial.raiseTo(3);
+
+        assertArrayEquals(new int[]{0, 100000, 200000, 300000}, cube.getExponents());
+        assertArrayEquals(new double[]{1, 3, 3, 1}, cube.getCoefficients(), 0);
+        assertThat(cube.eval(1), is(8.0));
+        assertThat(polynomial.times(polynomial.times(-1)).plus(new SparsePolynomial(1, 200000)).toString(),
+                is("(-2.0)X^100000-1.0"));
+
+        // x^3 of (x^100000 + 1)
+        assertThat(new SparsePolynomial(1, 3).of(polynomial).toString(), is(cube.toString()));
+    }
+
+    @Test
+    public void memoryFollowsTerms() {
+        // x^100000 + 1 keeps two terms, not 100001 coefficients, and so do its sums and products.
+        SparsePolynomial polynomial = new SparsePolynomial(new int[]{100000, 0}, new double[]{1, 1});
+
+        assertThat(polynomial.getExponents().length, is(2));
+        assertThat(polynomial.getCoefficients().length, is(2));
+        assertThat(polynomial.getFillRatio(), is(2 / 100001.0));
+        assertThat(polynomial.times(polynomial).getExponents().length, is(3));
+        assertThat(polynomial.plus(polynomial).times(2.5).getExponents().length, is(2));
+        assertThat(new SparsePolynomial(1, 2).of(polynomial).getTermCount(), is(3));
+    }
+
+    @Test
+    public void timesFilledIn() {
+        // Both fill ratios are at least 1/4, so these are multiplied dense.
+        double[] a = DensePolynomialTest.numbers(60, 5);
+        double[] b = DensePolynomialTest.numbers(40, 6);
+        SparsePolynomial p = SparsePolynomial.from(new DensePolynomial(a));
+        SparsePolynomial q = SparsePolynomial.from(new DensePolynomial(b));
+
+        assertThat(p.getFillRatio(), is(1.0));
+        assertArrayEquals(new DensePolynomial(a).times(new DensePolynomial(b)).getCoefficients(),
+                p.times(q).toDense().getCoefficients(), 1e-12);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void fromNotPlottable() {
+        SparsePolynomial.from(new Polynomial('a', 2));
+    }
+
+    /**
+     * Check a SparsePolynomial has the coefficients of a polyfun.Polynomial, up to rounding.
+     */
+    private static void compareToOld(polyfun.Polynomial expected, SparsePolynomial actual) {
+        polyfun.Coef[] coefs = expected.getCoefficients();
+        assertThat(actual.getDegree(), is(coefs.length - 1));
+
+        for (int i = 0; i < coefs.length; i++) {
+            polyfun.Term[] terms = coefs[i].getTerms();
+            double number = terms.length == 0 ? 0 : terms[0].getTermDouble();
+
+            assertEquals(number, actual.getCoefficientAt(i), 1e-9);
+        }
+    }
+}
@@ -382,4 +382,31 @@ public class TermTest {
 
         assertThat(newTerm.isConstantTerm(), is(true));
     }
+
+    @Test
+    public void productsDoNotShareAtoms() {
+        Term a = new Term('a');
+        Term b = new Term('b');
+
+        // Equal products, which share one Monomial.
+        Term product = a.times(b);
+        Term same = a.times(b);
+
+        product.getAtoms()[0].setPower(5);
+
+        assertThat(product.toString(), is("a^5b"));
+        assertThat(same.toString(), is("ab"));
+        assertThat(same.getAtoms()[0].getPower(), is(1));
+    }
+
+    @Test
+    public void lettersDoNotShareAtoms() {
+        Term term = new Term('a');
+        Term same = new Term('a');
+
+        term.getAtoms()[0].setPower(5);
+
+        assertThat(term.toString(), is("a^5"));
+        assertThat(same.toString(), is("a"));
+    }
 }
\ No newline at end of file
@@ -9,7 +9,12 @@ import org.junit.runners.Suite;
         PolynomialTest.class,
         CoefTest.class,
         TermTest.class,
-        AtomTest.class
+        AtomTest.class,
+        DensePolynomialTest.class,
+        SparsePolynomialTest.class,
+        OperationCacheTest.class,
+        FrozenCoefTest.class,
+        FrozenPolynomialTest.class
 })
 
 